@@ -0,0 +1,48 @@
+package hu.aestallon.minesweeper.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the generation of square boards of various sizes and mine
+ * densities.
+ */
+@State(Scope.Thread)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MinefieldBenchmark {
+
+    @Param({"16", "256", "2048"})
+    public int size;
+
+    /** The ratio of mines to every cell of the board. */
+    @Param({"0.05", "0.15", "0.6"})
+    public double density;
+
+    private int mineCount;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        mineCount = Math.max(1, (int) (size * size * density));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Minefield generate() {
+        return new Minefield(size, size, mineCount, seed++);
+    }
+}
@@ -0,0 +1,55 @@
+package hu.aestallon.minesweeper.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of generating a board solvable without guessing
+ * for the built-in board sizes, as experienced upon the first click of
+ * a game, with a varying number of worker threads.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class NoGuessGeneratorBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String preset;
+
+    @Param({"1", "4"})
+    public int threadCount;
+
+    private int size;
+    private int mineCount;
+    private NoGuessGenerator generator;
+
+    @Setup
+    public void setUp() {
+        switch (preset) {
+            case "small"  -> { size = GameConfig.SMALL; mineCount = GameConfig.SMALL_MINE_COUNT; }
+            case "medium" -> { size = GameConfig.MEDIUM; mineCount = GameConfig.MEDIUM_MINE_COUNT; }
+            case "large"  -> { size = GameConfig.LARGE; mineCount = GameConfig.LARGE_MINE_COUNT; }
+            default -> throw new IllegalArgumentException("Unknown preset: " + preset + "!");
+        }
+        generator = new NoGuessGenerator(threadCount, NoGuessGenerator.DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public NoGuessGenerator.Generation generateFromCentre() {
+        return generator.generate(size, size, mineCount, size / 2, size / 2);
+    }
+}
@@ -0,0 +1,70 @@
+package hu.aestallon.minesweeper.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the flood fill revealing the empty region around the first
+ * click, on square boards of various sizes and mine densities.
+ *
+ * <p>As revealing changes the board, a board can only be revealed once.
+ * Thus, a pool of {@link #POOL_SIZE} boards is generated from fixed
+ * seeds before every iteration, and an iteration is a single batch of
+ * invocations, each revealing one board of the pool. The generation is
+ * never measured, and the score is the time of revealing the whole
+ * pool.
+ */
+@State(Scope.Thread)
+@Fork(2)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20, batchSize = RevealBenchmark.POOL_SIZE)
+@Measurement(iterations = 50, batchSize = RevealBenchmark.POOL_SIZE)
+public class RevealBenchmark {
+
+    /** The number of distinct boards revealed in turn. */
+    static final int POOL_SIZE = 8;
+
+    @Param({"16", "256", "2048"})
+    public int size;
+
+    /** The ratio of mines to every cell of the board. */
+    @Param({"0.05", "0.15", "0.6"})
+    public double density;
+
+    private final Minefield[] pool = new Minefield[POOL_SIZE];
+    private int next;
+
+    /**
+     * Generates the boards, with their mines placed around a safe centre,
+     * the same boards for every iteration.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        int mineCount = Math.max(1, (int) (size * size * density));
+        for (int i = 0; i < POOL_SIZE; i++) {
+            pool[i] = Minefield.lazy(size, size, mineCount, i);
+            pool[i].placeMines(size / 2, size / 2, true);
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public int[] revealFromCentre() {
+        Minefield minefield = pool[next];
+        next = (next + 1) % POOL_SIZE;
+        return minefield.reveal(size / 2, size / 2);
+    }
+}
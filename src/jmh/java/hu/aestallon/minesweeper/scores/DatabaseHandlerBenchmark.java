@@ -0,0 +1,129 @@
+package hu.aestallon.minesweeper.scores;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the insert and query throughput of the {@link DatabaseHandler},
+ * against a temporary SQLite database prefilled with scores.
+ *
+ * <p>The inserted scores remain in the database, thus its size slowly
+ * grows during the trial, as it would during regular use.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DatabaseHandlerBenchmark {
+
+    private static final String DB_NAME = "/benchmark.db";
+    private static final String[] PLAYERS = {"alice", "bob", "carol", "dave", "eve", "guest"};
+    private static final int[][] CONFIGS = {{8, 8, 5}, {10, 10, 10}, {16, 16, 55}};
+    private static final int BATCH_SIZE = 100;
+
+    /** The number of scores in the database before the trial. */
+    @Param({"1000", "100000"})
+    public int scoreCount;
+
+    private Path directory;
+    private DatabaseHandler databaseHandler;
+    private SplittableRandom random;
+    private List<DatabaseHandler.Score> batch;
+
+    private DatabaseHandler.Score randomScore() {
+        int[] config = CONFIGS[random.nextInt(CONFIGS.length)];
+        return new DatabaseHandler.Score(
+                PLAYERS[random.nextInt(PLAYERS.length)],
+                random.nextInt(100_000),
+                config[0],
+                config[1],
+                config[2],
+                random.nextLong(1_000_000_000L, 600_000_000_000L),
+                System.currentTimeMillis(),
+                random.nextLong()
+        );
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("minesweeper-benchmark");
+        databaseHandler = DatabaseHandler.getCustomInstance("jdbc:sqlite:", directory.toString(), DB_NAME);
+        databaseHandler.initDatabase();
+        random = new SplittableRandom(2022L);
+
+        List<DatabaseHandler.Score> scores = new ArrayList<>(scoreCount);
+        for (int i = 0; i < scoreCount; i++) {
+            scores.add(randomScore());
+        }
+        databaseHandler.insertScores(scores);
+
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(randomScore());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        databaseHandler.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public int insertScore() {
+        return databaseHandler.insertScore(batch.get(0));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int insertScoreBatch() {
+        return databaseHandler.insertScores(batch);
+    }
+
+    @Benchmark
+    public int getHighestScore() {
+        return databaseHandler.getHighestScore();
+    }
+
+    @Benchmark
+    public List<DatabaseHandler.Score> getTopTenScores() {
+        return databaseHandler.getTopTenScores();
+    }
+
+    @Benchmark
+    public List<DatabaseHandler.Score> getTopScoresOfConfiguration() {
+        return databaseHandler.getTopScores(16, 16, 55, 10);
+    }
+
+    @Benchmark
+    public DatabaseHandler.PlayerStats getPlayerStats() {
+        return databaseHandler.getPlayerStats("Guest");
+    }
+}
@@ -3,27 +3,37 @@ package hu.aestallon.minesweeper;
 import hu.aestallon.minesweeper.game.GameConfig;
 import hu.aestallon.minesweeper.game.GamePanel;
 import hu.aestallon.minesweeper.scores.DatabaseHandler;
+import hu.aestallon.minesweeper.scores.Leaderboard;
 import hu.aestallon.minesweeper.scores.Player;
+import hu.aestallon.minesweeper.scores.ScoreWriter;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 
 public class GameFrame extends JFrame {
 
     /** This is the height and width of the cells in the game, given in pixels. */
     public static final int CELL_SIZE = 30;
 
-    private static final DatabaseHandler db = DatabaseHandler.getInstance();
+    private static final Leaderboard leaderboard = new Leaderboard(
+            DatabaseHandler.getInstance(),
+            ScoreWriter.getInstance()
+    );
 
     /** Stores game configuration data needed for the creation of new games. */
     private final GameConfig gameConfig;
 
     private GamePanel gamePanel;
+    /** The scroll pane showing the visible part of the {@link #gamePanel}. */
+    private JScrollPane gameView;
     private JButton newGameButton;
+    private JCheckBoxMenuItem heatmapItem;
 
     public GameFrame() {
         // Default game configuration setup:
-        Player defaultPlayer = new Player("guest", db);
+        Player defaultPlayer = new Player("guest", leaderboard);
         gameConfig = new GameConfig(defaultPlayer);
 
         // Frame initialization:
@@ -45,7 +55,7 @@ public class GameFrame extends JFrame {
             JOptionPane.showMessageDialog(null, e.getMessage());
         }
         this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        this.setSize(335, 80);
+        this.setSize(400, 80);
         this.setLayout(null);
         this.setResizable(false);
         this.setTitle("Home-Cooked Minesweeper");
@@ -100,6 +110,11 @@ public class GameFrame extends JFrame {
         settingsGroup.add(customGame);
         settingsMenu.add(customGame);
 
+        settingsMenu.addSeparator();
+        JMenuItem noGuess = new JCheckBoxMenuItem("No guessing");
+        noGuess.addActionListener(e -> gameConfig.setNoGuess(noGuess.isSelected()));
+        settingsMenu.add(noGuess);
+
         menuBar.add(settingsMenu);
 
         // Help Menu
@@ -128,6 +143,24 @@ public class GameFrame extends JFrame {
 
         menuBar.add(scoreMenu);
 
+        // Hints Menu
+        JMenu hintMenu = new JMenu("Hints");
+
+        JMenuItem bestGuess = new JMenuItem("Show best guess");
+        bestGuess.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_H, InputEvent.CTRL_DOWN_MASK));
+        bestGuess.addActionListener(e -> {
+            if (gamePanel != null) gamePanel.showHint();
+        });
+        hintMenu.add(bestGuess);
+
+        heatmapItem = new JCheckBoxMenuItem("Probability heatmap");
+        heatmapItem.addActionListener(e -> {
+            if (gamePanel != null) gamePanel.setHeatmapVisible(heatmapItem.isSelected());
+        });
+        hintMenu.add(heatmapItem);
+
+        menuBar.add(hintMenu);
+
         // New Game Button
         newGameButton = new JButton("New Game");
         newGameButton.setFocusable(false);
@@ -147,21 +180,38 @@ public class GameFrame extends JFrame {
      *
      * <p>Removes the panel containing the actual game interface from
      * this instance and initializes it based on the parameters
-     * provided, then adds the panel back to the instance. Finally, the
-     * instance is refreshed to let the user see and interact with the
-     * changes.
+     * provided, then adds the panel back to the instance inside a
+     * scroll pane. The scroll pane is as large as the board, unless the
+     * board does not fit on the screen. Finally, the instance is
+     * refreshed to let the user see and interact with the changes.
      */
     private void createNewGame() {
-        if (gamePanel != null) remove(gamePanel);
+        if (gameView != null) {
+            gamePanel.shutdown();
+            remove(gameView);
+        }
         gamePanel = new GamePanel(gameConfig);
-        gamePanel.setSize(
-                gameConfig.getCols() * CELL_SIZE,
-                gameConfig.getRows() * CELL_SIZE
-        );
-        gamePanel.setLocation(0, 0);
-        this.setSize(gamePanel.getWidth() + 15, gamePanel.getHeight() + 65);
-        this.add(gamePanel);
-        SwingUtilities.updateComponentTreeUI(this);
+        gamePanel.setHeatmapVisible(heatmapItem.isSelected());
+        gameView = new JScrollPane(gamePanel);
+        gameView.setBorder(null);
+
+        Rectangle screen = GraphicsEnvironment.getLocalGraphicsEnvironment().getMaximumWindowBounds();
+        Dimension board = gamePanel.getPreferredSize();
+        int width = Math.min(board.width, screen.width - 15);
+        int height = Math.min(board.height, screen.height - 65);
+        // Leave room for the scrollbar of the other direction:
+        if (width < board.width) {
+            height = Math.min(height + gameView.getHorizontalScrollBar().getPreferredSize().height, screen.height - 65);
+        }
+        if (height < board.height) {
+            width = Math.min(width + gameView.getVerticalScrollBar().getPreferredSize().width, screen.width - 15);
+        }
+        gameView.setSize(width, height);
+        gameView.setLocation(0, 0);
+        this.setSize(gameView.getWidth() + 15, gameView.getHeight() + 65);
+        this.add(gameView);
+        this.getContentPane().revalidate();
+        this.repaint();
     }
 
     private class CustomGameDialog extends JFrame {
@@ -241,6 +291,9 @@ public class GameFrame extends JFrame {
                 <p>Once a difficulty is selected, click on the "New Game" button<br>
                 to start a new game.
                                 
+                <p>Select "No guessing" in the "Settings" menu to only play boards<br>
+                which can be solved from the first click by logic alone.
+                                
                 <h2>Playing the game<h2>
                                 
                 <p>Left-clicking any cell will reveal what lies hidden under it.<br>
@@ -253,6 +306,19 @@ public class GameFrame extends JFrame {
                 mines cannot be left-clicked, so you can prevent yourself clicking<br>
                 on a mine by mistake! Right-clicking a suspected mine again will<br>
                 remove this restriction.
+                                
+                <p>Left-clicking a revealed number with exactly as many suspected<br>
+                neighbours as its number will reveal all its other neighbours.
+                                
+                <p>Large boards can be scrolled, and zoomed in and out by scrolling<br>
+                while holding down the Ctrl key.
+                                
+                <h2>Hints</h2>
+                                
+                <p>If you are stuck, "Show best guess" in the "Hints" menu (Ctrl+H)<br>
+                outlines the cell least likely to hide a mine. The "Probability<br>
+                heatmap" colours every hidden cell from green to red, by how likely<br>
+                it is to hide a mine.
                 </html>""";
 
         private static final String aboutText = """
@@ -295,7 +361,7 @@ public class GameFrame extends JFrame {
             JLabel scoreHeader = new JLabel("Score");
             this.add(scoreHeader);
 
-            db.getTopTenScores().forEach(score -> {
+            leaderboard.getTopScores().forEach(score -> {
                 JLabel player = new JLabel(score.name());
                 this.add(player);
                 JLabel highScore = new JLabel(String.valueOf(score.score()));
@@ -325,7 +391,7 @@ public class GameFrame extends JFrame {
                     JOptionPane.showMessageDialog(this, "Name cannot be blank!");
                 } else {
                     GameFrame.this.gameConfig
-                            .setPlayer(new Player(input, db));
+                            .setPlayer(new Player(input, leaderboard));
                     this.dispose();
                 }
             });
@@ -5,13 +5,19 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public final class Main {
     public static final Map<String, BufferedImage> sprites = new HashMap<>();
 
-    private static final String[] SPRITE_NAMES =
-            {"0", "1", "2", "3", "4", "5", "6", "7", "8", "x", "defaultImage", "suspected"};
+    /**
+     * The names of the sprites used by the game. The sprites of the
+     * digits and the mine come first, so a cell's value can be used to
+     * look up its sprite.
+     */
+    public static final List<String> SPRITE_NAMES =
+            List.of("0", "1", "2", "3", "4", "5", "6", "7", "8", "x", "defaultImage", "suspected");
 
     private Main() {}
 
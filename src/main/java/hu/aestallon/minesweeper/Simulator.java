@@ -0,0 +1,234 @@
+package hu.aestallon.minesweeper;
+
+import hu.aestallon.minesweeper.game.GameConfig;
+import hu.aestallon.minesweeper.game.GameEngine;
+import hu.aestallon.minesweeper.game.Minefield;
+import hu.aestallon.minesweeper.game.RandomStrategy;
+import hu.aestallon.minesweeper.game.SolverStrategy;
+import hu.aestallon.minesweeper.game.Strategy;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Plays games of Minesweeper without any user interface, with an
+ * automated {@link Strategy}, and reports the results.
+ *
+ * <p>The games are played in parallel, on a dedicated
+ * {@link ForkJoinPool}. The board of every game is generated from its
+ * own seed (the base seed plus the number of the game), which is also
+ * passed to its strategy, thus every simulation can be reproduced.
+ *
+ * <p>The simulation can be started from the command line:
+ * <pre>
+ * java -cp Minesweeper.jar hu.aestallon.minesweeper.Simulator [options]
+ *
+ *   --games N          the number of games to play (default: 10000)
+ *   --preset NAME      small, medium or large (default: large)
+ *   --rows N           the number of rows, overriding the preset
+ *   --cols N           the number of columns, overriding the preset
+ *   --mines N          the number of mines, overriding the preset
+ *   --strategy NAME    random or solver (default: random)
+ *   --threads N        the number of threads (default: every core)
+ *   --seed N           the base seed of the games (default: random)
+ * </pre>
+ */
+public final class Simulator {
+
+    /** The strategies available from the command line, by their names. */
+    private static final Map<String, LongFunction<Strategy>> STRATEGIES = Map.of(
+            "random", RandomStrategy::new,
+            "solver", SolverStrategy::new
+    );
+
+    private final int rows;
+    private final int cols;
+    private final int mineCount;
+    private final LongFunction<Strategy> strategyFactory;
+    private final int threadCount;
+
+    /**
+     * Creates a new simulator of games with the given board parameters.
+     *
+     * @param rows            the {@code int} number of rows of the boards
+     * @param cols            the {@code int} number of columns of the boards
+     * @param mineCount       the {@code int} number of mines of the boards
+     * @param strategyFactory creates the {@link Strategy} of a game from
+     *                        the seed of the game
+     * @param threadCount     the {@code int} number of threads playing
+     *                        the games, at least 1
+     * @throws IllegalArgumentException if there is no room for the mines
+     *                                  on the board, or no thread to
+     *                                  play the games
+     */
+    public Simulator(int rows, int cols, int mineCount, LongFunction<Strategy> strategyFactory, int threadCount) {
+        if (rows < 1 || cols < 1 || mineCount < 0 || mineCount >= (long) rows * cols) {
+            throw new IllegalArgumentException("Invalid board parameters!");
+        }
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("There must be at least 1 thread!");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.mineCount = mineCount;
+        this.strategyFactory = strategyFactory;
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Plays the given number of games.
+     *
+     * @param gameCount the {@code int} number of games to play
+     * @param baseSeed  the {@code long} seed of the first game
+     * @return the {@link Report} of the games
+     */
+    public Report run(int gameCount, long baseSeed) {
+        long[] latencies = new long[gameCount];
+        boolean[] won = new boolean[gameCount];
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+        long start = System.nanoTime();
+        try {
+            pool.submit(() -> IntStream.range(0, gameCount).parallel().forEach(i -> {
+                long gameStart = System.nanoTime();
+                won[i] = play(baseSeed + i);
+                latencies[i] = System.nanoTime() - gameStart;
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation was interrupted!", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed!", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int winCount = 0;
+        for (boolean w : won) {
+            if (w) winCount++;
+        }
+        Arrays.sort(latencies);
+        return new Report(gameCount, winCount, elapsed, latencies);
+    }
+
+    /**
+     * Plays a single game to its end.
+     *
+     * @param seed the {@code long} seed of the game
+     * @return true, if the game is won, false otherwise
+     */
+    private boolean play(long seed) {
+        GameEngine engine = new GameEngine(Minefield.lazy(rows, cols, mineCount, seed));
+        Strategy strategy = strategyFactory.apply(seed);
+        int[] changed = new int[0];
+        while (engine.getStatus() == GameEngine.Status.PLAYING) {
+            int move = strategy.nextMove(engine, changed);
+            changed = engine.reveal(move / cols, move % cols);
+        }
+        return engine.getStatus() == GameEngine.Status.WON;
+    }
+
+    /**
+     * The results of a simulation.
+     *
+     * @param gameCount the number of games played
+     * @param winCount  the number of games won
+     * @param elapsed   the duration of the simulation, in nanoseconds
+     * @param latencies the duration of every game, in nanoseconds, in
+     *                  ascending order
+     */
+    public record Report(int gameCount, int winCount, long elapsed, long[] latencies) {
+
+        public double winRate() {
+            return gameCount == 0 ? 0 : (double) winCount / gameCount;
+        }
+
+        public double gamesPerSecond() {
+            return gameCount * 1e9 / elapsed;
+        }
+
+        /**
+         * Returns the given percentile of the game durations, using the
+         * nearest-rank method.
+         *
+         * @param percentile the {@code double} percentile, between 0 and 100
+         * @return the duration of a game, in nanoseconds
+         */
+        public long latencyPercentile(double percentile) {
+            if (latencies.length == 0) return 0;
+            int rank = (int) Math.ceil(percentile / 100 * latencies.length);
+            return latencies[Math.max(rank - 1, 0)];
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, """
+                            Games:       %d
+                            Won:         %d (%.2f%%)
+                            Elapsed:     %.3f s
+                            Throughput:  %.1f games/s
+                            Latency:     p50 %.1f us, p90 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us""",
+                    gameCount,
+                    winCount, winRate() * 100,
+                    elapsed / 1e9,
+                    gamesPerSecond(),
+                    latencyPercentile(50) / 1e3,
+                    latencyPercentile(90) / 1e3,
+                    latencyPercentile(99) / 1e3,
+                    latencyPercentile(99.9) / 1e3,
+                    latencyPercentile(100) / 1e3);
+        }
+    }
+
+    public static void main(String[] args) {
+        int games = 10_000;
+        int rows = GameConfig.LARGE, cols = GameConfig.LARGE, mines = GameConfig.LARGE_MINE_COUNT;
+        String strategy = "random";
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value of " + option + "!");
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--games"    -> games = Integer.parseInt(value);
+                    case "--rows"     -> rows = Integer.parseInt(value);
+                    case "--cols"     -> cols = Integer.parseInt(value);
+                    case "--mines"    -> mines = Integer.parseInt(value);
+                    case "--strategy" -> strategy = value;
+                    case "--threads"  -> threads = Integer.parseInt(value);
+                    case "--seed"     -> seed = Long.parseLong(value);
+                    case "--preset"   -> {
+                        switch (value) {
+                            case "small"  -> { rows = cols = GameConfig.SMALL; mines = GameConfig.SMALL_MINE_COUNT; }
+                            case "medium" -> { rows = cols = GameConfig.MEDIUM; mines = GameConfig.MEDIUM_MINE_COUNT; }
+                            case "large"  -> { rows = cols = GameConfig.LARGE; mines = GameConfig.LARGE_MINE_COUNT; }
+                            default -> throw new IllegalArgumentException("Unknown preset: " + value + "!");
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("Unknown option: " + option + "!");
+                }
+            }
+            LongFunction<Strategy> strategyFactory = STRATEGIES.get(strategy);
+            if (strategyFactory == null) {
+                throw new IllegalArgumentException("Unknown strategy: " + strategy + "!");
+            }
+
+            System.out.printf(Locale.ROOT, "Playing %d games of %dx%d with %d mines (%s strategy, %d threads, seed %d)%n",
+                    games, rows, cols, mines, strategy, threads, seed);
+            Report report = new Simulator(rows, cols, mines, strategyFactory, threads).run(games, seed);
+            System.out.println(report);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.exit(1);
+        }
+    }
+}
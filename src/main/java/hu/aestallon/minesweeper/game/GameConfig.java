@@ -7,7 +7,10 @@ import hu.aestallon.minesweeper.scores.Player;
  * session of Minesweeper.
  *
  * <p>Instances store a given game-board attributes (number of rows, columns and
- * mines hidden) and the {@link Player} associated with it.
+ * mines hidden), whether the board must be solvable without guessing, and
+ * the {@link Player} associated with it. Once a game is
+ * over, they also store its timing and the seed of its board, which are
+ * saved along with its score.
  *
  * @author Szabolcs Bazil Papp
  * @version 1.0
@@ -40,8 +43,11 @@ public final class GameConfig {
     private int rows;
     private int cols;
     private int mineCount;
+    private boolean noGuess;
     private long startTime;
     private long endTime;
+    private long duration;
+    private long seed;
 
     /**
      * Creates a new instance with the minimum allowed sizes and
@@ -60,6 +66,26 @@ public final class GameConfig {
         this.mineCount = MIN_MINE_COUNT;
     }
 
+    /**
+     * Creates a copy of this instance's board attributes and player, to
+     * be used by a single game.
+     *
+     * <p>The settings of new games may be changed while a game is in
+     * progress, thus every game keeps its own copy, in which its timing
+     * and seed are stored as well.
+     *
+     * @return a new {@code GameConfig} with the same player, size, mine
+     *         count and no-guess setting, and no timing or seed
+     */
+    public GameConfig copy() {
+        GameConfig copy = new GameConfig(player);
+        copy.rows = rows;
+        copy.cols = cols;
+        copy.mineCount = mineCount;
+        copy.noGuess = noGuess;
+        return copy;
+    }
+
     /**
      * Returns the player associated with this instance.
      *
@@ -151,6 +177,29 @@ public final class GameConfig {
         this.mineCount = mineCount;
     }
 
+    /**
+     * Checks whether the boards of new games must be solvable without
+     * guessing. Boards of more than {@link NoGuessGenerator#MAX_CELL_COUNT}
+     * cells are regular boards regardless.
+     *
+     * @return true, if the boards are generated by a
+     *         {@link NoGuessGenerator}, false otherwise
+     */
+    public boolean isNoGuess() {
+        return noGuess;
+    }
+
+    /**
+     * Sets whether the boards of new games must be solvable without
+     * guessing.
+     *
+     * @param noGuess true, if the boards should be generated by a
+     *                {@link NoGuessGenerator}
+     */
+    public void setNoGuess(boolean noGuess) {
+        this.noGuess = noGuess;
+    }
+
     /**
      * Returns the timestamp of the game's start.
      *
@@ -189,6 +238,48 @@ public final class GameConfig {
         this.endTime = endTime;
     }
 
+    /**
+     * Returns the precise duration of the game.
+     *
+     * @return the game's duration, in nanoseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Sets the precise duration of the game, measured with
+     * {@link System#nanoTime()}.
+     *
+     * @param duration the {@code long} duration of the game, in
+     *                 nanoseconds, not negative
+     */
+    public void setDuration(long duration) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Invalid duration!");
+        }
+        this.duration = duration;
+    }
+
+    /**
+     * Returns the seed of the game's board.
+     *
+     * @return the {@code long} seed of the board
+     * @see Minefield#getSeed()
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Sets the seed the game's board is generated from.
+     *
+     * @param seed the {@code long} seed of the board
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
     public int calculateScore() {
         if (mineCount == 0 || endTime == 0 || startTime == 0) {
             throw new IllegalStateException("Cannot calculate score with empty fields!");
@@ -0,0 +1,344 @@
+package hu.aestallon.minesweeper.game;
+
+import java.util.Arrays;
+
+/**
+ * Owns the state of a single game of Minesweeper, and enforces its rules
+ * without depending on any user interface.
+ *
+ * <p>The game is played by calling the move methods:
+ * {@link #reveal(int, int)}, {@link #toggleFlag(int, int)} and
+ * {@link #chord(int, int)}. Every move returns the flat indices
+ * ({@code x * cols + y}) of the cells whose visible state it changed,
+ * which is all a view needs to refresh itself. The outcome of the game
+ * can be queried with {@link #getStatus()}.
+ *
+ * <p>The board itself is stored in a {@link Minefield}. If its mines
+ * are not placed yet, they are placed upon the first reveal, keeping
+ * the revealed cell and its neighbours safe. Games created with a
+ * {@link NoGuessGenerator} replace their board upon the first reveal
+ * with one generated by it, which can be solved without guessing.
+ *
+ * <p>Instances are not thread-safe.
+ *
+ * @see Minefield
+ */
+public class GameEngine {
+
+    /** The possible states of a game. */
+    public enum Status {
+        /** The game is in progress, moves are accepted. */
+        PLAYING,
+        /** Every safe cell has been revealed. */
+        WON,
+        /** A mine has been revealed. */
+        LOST
+    }
+
+    private static final int[] NO_CELLS = {};
+
+    /** Generates the board upon the first reveal, or null. */
+    private final NoGuessGenerator generator;
+    private Minefield minefield;
+    /** Whether the generator fell back to a regular board. */
+    private boolean fallbackBoard = false;
+    private Status status = Status.PLAYING;
+
+    /**
+     * Creates a new game with a board of the given size and mine count.
+     * The mines are placed upon the first reveal.
+     *
+     * @param rows      the {@code int} number of rows in the board
+     * @param cols      the {@code int} number of columns in the board
+     * @param mineCount the {@code int} number of mines in the board
+     */
+    public GameEngine(int rows, int cols, int mineCount) {
+        this(Minefield.lazy(rows, cols, mineCount));
+    }
+
+    /**
+     * Creates a new game with a board of the given size and mine count,
+     * solvable without guessing. The board is generated upon the first
+     * reveal.
+     *
+     * @param rows      the {@code int} number of rows in the board
+     * @param cols      the {@code int} number of columns in the board
+     * @param mineCount the {@code int} number of mines in the board
+     * @param generator the {@link NoGuessGenerator} of the board, not
+     *                  null
+     */
+    public GameEngine(int rows, int cols, int mineCount, NoGuessGenerator generator) {
+        if (generator == null) {
+            throw new IllegalArgumentException("Generator cannot be null!");
+        }
+        this.minefield = Minefield.lazy(rows, cols, mineCount);
+        this.generator = generator;
+    }
+
+    /**
+     * Creates a new game played on the provided minefield.
+     *
+     * @param minefield a {@link Minefield}, with or without its mines
+     *                  placed, not null
+     */
+    public GameEngine(Minefield minefield) {
+        if (minefield == null) {
+            throw new IllegalArgumentException("Minefield cannot be null!");
+        }
+        this.minefield = minefield;
+        this.generator = null;
+    }
+
+    /**
+     * Reveals the given cell, and the empty region around it.
+     *
+     * <p>If the cell is a mine, the game is lost, and every mine is
+     * revealed. If every safe cell is revealed, the game is won.
+     * Flagged and already revealed cells are not affected.
+     *
+     * @param x horizontal position of the cell.
+     * @param y vertical position of the cell.
+     * @return the indices of the cells changed by this move
+     */
+    public int[] reveal(int x, int y) {
+        if (status != Status.PLAYING) return NO_CELLS;
+        if (!minefield.areMinesPlaced()) {
+            if (minefield.isFlagged(x, y)) return NO_CELLS;
+            if (generator != null) {
+                NoGuessGenerator.Generation generation =
+                        generator.generate(getRows(), getCols(), getMineCount(), x, y);
+                replaceMinefield(generation.minefield());
+                fallbackBoard = !generation.guessFree();
+            } else {
+                minefield.placeMines(x, y, true);
+            }
+        }
+        int[] revealed = minefield.reveal(x, y);
+        return concludeMove(revealed, minefield.isMine(x, y) && revealed.length > 0);
+    }
+
+    /**
+     * Flags an unrevealed cell as "suspected to be hiding a mine", or
+     * removes the flag if it is already present.
+     *
+     * @param x horizontal position of the cell.
+     * @param y vertical position of the cell.
+     * @return the indices of the cells changed by this move
+     */
+    public int[] toggleFlag(int x, int y) {
+        if (status != Status.PLAYING || minefield.isRevealed(x, y)) return NO_CELLS;
+        minefield.setFlagged(x, y, !minefield.isFlagged(x, y));
+        return new int[]{minefield.toIndex(x, y)};
+    }
+
+    /**
+     * Reveals every unflagged neighbour of a revealed, numbered cell,
+     * provided that the number of its flagged neighbours equals its
+     * number.
+     *
+     * <p>If any of the flags were misplaced, a mine is revealed, and
+     * the game is lost.
+     *
+     * @param x horizontal position of the cell.
+     * @param y vertical position of the cell.
+     * @return the indices of the cells changed by this move
+     */
+    public int[] chord(int x, int y) {
+        if (status != Status.PLAYING || !minefield.isRevealed(x, y)) return NO_CELLS;
+        int value = minefield.getCell(x, y) - '0';
+        if (value == 0) return NO_CELLS;
+
+        int fromRow = Math.max(x - 1, 0), toRow = Math.min(x + 1, getRows() - 1);
+        int fromCol = Math.max(y - 1, 0), toCol = Math.min(y + 1, getCols() - 1);
+        int flagCount = 0;
+        for (int i = fromRow; i <= toRow; i++) {
+            for (int j = fromCol; j <= toCol; j++) {
+                if (minefield.isFlagged(i, j)) flagCount++;
+            }
+        }
+        if (flagCount != value) return NO_CELLS;
+
+        int[] changed = NO_CELLS;
+        boolean hitMine = false;
+        for (int i = fromRow; i <= toRow; i++) {
+            for (int j = fromCol; j <= toCol; j++) {
+                int[] revealed = minefield.reveal(i, j);
+                if (revealed.length > 0) {
+                    hitMine |= minefield.isMine(i, j);
+                    changed = concat(changed, revealed);
+                }
+            }
+        }
+        return concludeMove(changed, hitMine);
+    }
+
+    /**
+     * Replaces the board before the first reveal, keeping the flags
+     * placed so far.
+     *
+     * @param generated the new {@link Minefield}, of the same size, with
+     *                  no cells revealed
+     */
+    private void replaceMinefield(Minefield generated) {
+        for (int i = 0; i < getRows(); i++) {
+            for (int j = 0; j < getCols(); j++) {
+                if (minefield.isFlagged(i, j)) generated.setFlagged(i, j, true);
+            }
+        }
+        minefield = generated;
+    }
+
+    /**
+     * Updates the status of the game after some cells were revealed.
+     *
+     * @param revealed the indices of the cells revealed by the move
+     * @param hitMine  whether a mine was revealed by the move
+     * @return the indices of every cell changed by the move
+     */
+    private int[] concludeMove(int[] revealed, boolean hitMine) {
+        if (hitMine) {
+            status = Status.LOST;
+            return concat(revealed, revealAllMines());
+        }
+        if (minefield.isCleared()) {
+            status = Status.WON;
+        }
+        return revealed;
+    }
+
+    private int[] revealAllMines() {
+        int[] mines = new int[minefield.getMineCount()];
+        int size = 0;
+        for (int i = 0; i < getRows(); i++) {
+            for (int j = 0; j < getCols(); j++) {
+                if (minefield.isMine(i, j) && !minefield.isRevealed(i, j)) {
+                    minefield.setRevealed(i, j);
+                    mines[size++] = minefield.toIndex(i, j);
+                }
+            }
+        }
+        return Arrays.copyOf(mines, size);
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        if (first.length == 0) return second;
+        if (second.length == 0) return first;
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    /**
+     * Returns the current status of the game.
+     *
+     * @return the {@link Status} of the game
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the {@code char} value of a revealed cell, as defined by
+     * {@link Minefield#getCell(int, int)}.
+     *
+     * @param x horizontal position of the cell.
+     * @param y vertical position of the cell.
+     * @return the {@code char} value of the cell
+     * @throws IllegalStateException if the cell is not revealed
+     */
+    public char getCell(int x, int y) {
+        if (!minefield.isRevealed(x, y)) {
+            throw new IllegalStateException("Hidden cells cannot be queried!");
+        }
+        return minefield.getCell(x, y);
+    }
+
+    /**
+     * Checks whether the given cell has been revealed.
+     *
+     * @param x horizontal position of the cell.
+     * @param y vertical position of the cell.
+     * @return true, if the cell is revealed, false otherwise.
+     */
+    public boolean isRevealed(int x, int y) {
+        return minefield.isRevealed(x, y);
+    }
+
+    /**
+     * Checks whether the given cell is flagged as "suspected to be
+     * hiding a mine".
+     *
+     * @param x horizontal position of the cell.
+     * @param y vertical position of the cell.
+     * @return true, if the cell is flagged, false otherwise.
+     */
+    public boolean isFlagged(int x, int y) {
+        return minefield.isFlagged(x, y);
+    }
+
+    /**
+     * Returns the number of rows of the board.
+     *
+     * @return the {@code int} number of rows
+     */
+    public int getRows() {
+        return minefield.getRows();
+    }
+
+    /**
+     * Returns the number of columns of the board.
+     *
+     * @return the {@code int} number of columns
+     */
+    public int getCols() {
+        return minefield.getCols();
+    }
+
+    /**
+     * Returns the seed of the board, as defined by
+     * {@link Minefield#getSeed()}. The seed of a board generated by a
+     * {@link NoGuessGenerator} is only known after the first reveal.
+     *
+     * @return the {@code long} seed of the board
+     */
+    public long getSeed() {
+        return minefield.getSeed();
+    }
+
+    /**
+     * Returns whether the board was to be generated solvable without
+     * guessing, but the {@link NoGuessGenerator} found no such board
+     * within its time budget, thus a regular board is played instead.
+     * Only known after the first reveal.
+     *
+     * @return true, if a regular board is played instead of one
+     *         solvable without guessing, false otherwise
+     */
+    public boolean isFallbackBoard() {
+        return fallbackBoard;
+    }
+
+    /**
+     * Returns the number of cells yet to be revealed, mines included.
+     *
+     * <p>The count is derived from the running count of the
+     * {@link Minefield}, thus calling this method costs constant time.
+     *
+     * @return the {@code int} number of hidden cells
+     */
+    public int getHiddenCount() {
+        // Mines are only revealed once the game is lost, all at once:
+        return (status == Status.LOST)
+                ? minefield.getHiddenSafeCellCount()
+                : minefield.getHiddenSafeCellCount() + getMineCount();
+    }
+
+    /**
+     * Returns the number of mines hidden in the board.
+     *
+     * @return the {@code int} number of mines
+     */
+    public int getMineCount() {
+        return minefield.getMineCount();
+    }
+}
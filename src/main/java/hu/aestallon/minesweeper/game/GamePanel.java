@@ -1,156 +1,587 @@
 package hu.aestallon.minesweeper.game;
 
+import hu.aestallon.minesweeper.GameFrame;
+import hu.aestallon.minesweeper.scores.Player;
+import hu.aestallon.minesweeper.scores.ScoreCategory;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * An extended {@link JPanel} displaying an interactive Minesweeper
  * board.
+ *
+ * <p>The state of the game and its rules are owned by a
+ * {@link GameEngine}, the panel only forwards the clicks of the user
+ * as moves to the engine, and displays their results.
+ *
+ * <p>The whole board is a single component: every cell is painted as a
+ * sprite taken from a {@link SpriteCache}, and mouse clicks are
+ * mapped to cells by their coordinates. Only the cells intersecting the
+ * clip area are painted.
+ *
+ * <p>The panel keeps the sprite of every cell in its own packed array of
+ * tiles (4 bits per cell), so painting never touches the engine. The
+ * cells changed by a move are collected into a {@link Batch}, which is
+ * applied to the tiles at once, followed by a single repaint of the
+ * rectangle enclosing every changed cell.
+ *
+ * <p>Moves are performed on a single background thread owned by the
+ * panel, which is the only thread accessing the engine once it is
+ * created: the size of the board is kept in the panel, and the outcome
+ * of every move is handed over to the Event Dispatch Thread as a
+ * {@link Batch}. As a single
+ * thread executes the moves in the order of submission, and their
+ * batches are handed back to the Event Dispatch Thread in the same
+ * order, rapid clicks are applied in sequence, while the user
+ * interface stays responsive during long reveals. Scores are saved on
+ * another background thread, shared by every panel, thus the score of
+ * a game is saved even if its panel has been shut down in the meantime.
+ * Once the panel is no longer needed, {@link #shutdown()} should be
+ * called to release its thread.
+ *
+ * <p>The panel can assist the user with the mine probabilities of the
+ * hidden cells, computed by a {@link ProbabilityEngine} on the move
+ * executor: {@link #showHint()} outlines the cell least likely to hide a
+ * mine, and {@link #setHeatmapVisible(boolean)} toggles an overlay
+ * colouring every hidden cell from green (safe) to red (mine). The
+ * heatmap is only painted while the cells are painted as sprites, thus
+ * it is only recomputed after a move while it is painted, and only the
+ * probabilities of the painted cells are looked up.
+ *
+ * <p>Instances are meant to be placed in a {@link JScrollPane}, only
+ * the cells visible in its viewport are painted. The board can be
+ * zoomed by scrolling the mouse wheel while holding down the Ctrl key.
+ * Once the cells become smaller than {@link #MIN_SPRITE_SIZE}, they are
+ * painted as single pixels of their sprite's average colour, magnified
+ * to the cell size.
  */
-public class GamePanel extends JPanel {
+public class GamePanel extends JPanel implements Scrollable {
+
+    /** The smallest cell size the board can be zoomed out to, in pixels. */
+    private static final int MIN_CELL_SIZE = 1;
+    /** The largest cell size the board can be zoomed in to, in pixels. */
+    private static final int MAX_CELL_SIZE = 4 * GameFrame.CELL_SIZE;
+    /** The smallest cell size at which cells are painted as sprites. */
+    private static final int MIN_SPRITE_SIZE = 8;
+    /** The ratio of the cell sizes of neighbouring zoom levels. */
+    private static final double ZOOM_STEP = 1.25;
+    /** The overlay colours of the heatmap, by the percentage of the mine probability. */
+    private static final Color[] HEATMAP_COLOURS = new Color[101];
+    private static final Color HINT_COLOUR = new Color(30, 110, 255);
+
+    static {
+        for (int i = 0; i <= 100; i++) {
+            HEATMAP_COLOURS[i] = new Color(255 * i / 100, 255 * (100 - i) / 100, 0, 110);
+        }
+    }
 
-    /** Contains every {@link CellButton} present in this instance. */
-    private final List<CellButton> cellButtons;
+    /** The copy of the settings the game was started with. */
     private final GameConfig gameConfig;
+    private final GameEngine engine;
+    /**
+     * The size of the board, kept apart from the engine, as the engine
+     * may replace its board on the move executor.
+     */
+    private final int rows;
+    private final int cols;
+    /**
+     * Saves the scores of every game, shared by the panels, as a game
+     * may be won right before its panel is shut down.
+     */
+    private static final ExecutorService scoreExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "minesweeper-scores");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Performs the moves, in order of submission. */
+    private final ExecutorService moveExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "minesweeper-moves");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** The sprite of every cell, packed two cells per byte. */
+    private final byte[] tiles;
+    /** The {@link System#nanoTime()} of the game's start. */
+    private final long startNanos;
+    /**
+     * Created upon the first hint or heatmap, only accessed on the thread
+     * of the move executor.
+     */
+    private ProbabilityEngine probabilityEngine;
+    /** Whether the heatmap is shown. */
+    private boolean heatmapVisible = false;
+    /** The mine probabilities of the hidden cells, or null if not shown. */
+    private ProbabilityEngine.Probabilities probabilities;
+    /** The flat index of the cell suggested by the hint, or -1. */
+    private int hintCell = -1;
+    /** Whether the player was told that the board may require guessing. */
+    private boolean fallbackReported = false;
+
+    private int cellSize = GameFrame.CELL_SIZE;
+    private SpriteCache sprites = SpriteCache.forSize(cellSize);
+    /** Holds one pixel per visible cell when painting zoomed out. */
+    private BufferedImage pixelBuffer;
 
     /**
      * Constructs an instance with the given rows and columns and
      * number of mines.
      *
+     * <p>The mines are not placed until the first cell is revealed,
+     * which is guaranteed to be a {@code '0'} if the board has enough
+     * room for the mines.
+     *
      * @param gameConfig the {@link GameConfig} object containing all
-     *                   game configuration related information
+     *                   game configuration related information, copied
+     *                   upon the start of the game
      */
     public GamePanel(GameConfig gameConfig) {
-        cellButtons = new ArrayList<>();
-        this.gameConfig = gameConfig;
+        // The settings may be changed during the game, the score must
+        // describe the board actually played:
+        this.gameConfig = gameConfig.copy();
+        engine = this.gameConfig.isNoGuess()
+                ? new GameEngine(
+                        this.gameConfig.getRows(),
+                        this.gameConfig.getCols(),
+                        this.gameConfig.getMineCount(),
+                        NoGuessGenerator.getInstance()
+                )
+                : new GameEngine(
+                        this.gameConfig.getRows(),
+                        this.gameConfig.getCols(),
+                        this.gameConfig.getMineCount()
+                );
+        rows = this.gameConfig.getRows();
+        cols = this.gameConfig.getCols();
+        tiles = new byte[(rows * cols + 1) / 2];
+        Arrays.fill(tiles, (byte) (SpriteCache.HIDDEN << 4 | SpriteCache.HIDDEN));
 
-        Minefield minefield = new Minefield(
-                gameConfig.getRows(),
-                gameConfig.getCols(),
-                gameConfig.getMineCount()
-        );
-        for (int i = 0; i < gameConfig.getRows(); i++) {
-            for (int j = 0; j < gameConfig.getCols(); j++) {
-                CellButton cellButton = new CellButton(i, j, minefield.getCell(i, j));
-                this.add(cellButton);
-                cellButtons.add(cellButton);
-                cellButton.addMouseListener(new MouseAdapter() {
-                    @Override
-                    public void mousePressed(MouseEvent e) {
-                        GamePanel.this.processCellButtonClick(e);
-                    }
-                });
+        MouseAdapter mouseAdapter = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                GamePanel.this.processClick(e);
             }
-        }
-        this.setLayout(new GridLayout(
-                gameConfig.getRows(),
-                gameConfig.getCols(),
-                0, 0
-        ));
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                GamePanel.this.processWheel(e);
+            }
+        };
+        this.addMouseListener(mouseAdapter);
+        this.addMouseWheelListener(mouseAdapter);
+        this.setPreferredSize(boardSize());
         this.setVisible(true);
-        gameConfig.setStartTime(System.currentTimeMillis());
+        this.gameConfig.setStartTime(System.currentTimeMillis());
+        startNanos = System.nanoTime();
     }
 
-    private void processCellButtonClick(MouseEvent event) {
-        CellButton button = (CellButton) event.getSource();
-        if (SwingUtilities.isLeftMouseButton(event) &&
-                !button.isSus() &&
-                button.isInteractive()) {
+    private Dimension boardSize() {
+        return new Dimension(cols * cellSize, rows * cellSize);
+    }
 
-            button.reveal();
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(getSize());
 
-            if (button.isMine()) {
-                gameConfig.setEndTime(System.currentTimeMillis());
-                cellButtons.forEach(CellButton::setPassive);
-                JOptionPane.showMessageDialog(null, "Sadly you lost. :(");
-                cellButtons.stream().filter(CellButton::isMine).forEach(CellButton::reveal);
-            } else {
-                if (button.getValue() == '0') autoRevealZeros(button);
-                if (isVictory()) {
-                    gameConfig.setEndTime(System.currentTimeMillis());
-                    cellButtons.forEach(CellButton::setPassive);
-
-                    int score = gameConfig.calculateScore();
-                    String message = null;
-                    switch (gameConfig.getPlayer().saveScore(score)) {
-                        case HIGH_SCORE    -> message = "HIGH SCORE! Congratulations!";
-                        case PERSONAL_BEST -> message = "This is your current personal best! Keep up!";
-                        case REGULAR       -> message = "Congratulations, you won!";
-                    }
-                    JOptionPane.showMessageDialog(null, message + " Your score: " + score);
-                }
+        final int size = cellSize;
+        int fromRow = Math.max(clip.y / size, 0);
+        int toRow = Math.min((clip.y + clip.height - 1) / size, rows - 1);
+        int fromCol = Math.max(clip.x / size, 0);
+        int toCol = Math.min((clip.x + clip.width - 1) / size, cols - 1);
+        if (fromRow > toRow || fromCol > toCol) return;
+
+        if (size < MIN_SPRITE_SIZE) {
+            paintCellsAsPixels(g, fromRow, toRow, fromCol, toCol);
+            return;
+        }
+        for (int i = fromRow; i <= toRow; i++) {
+            for (int j = fromCol; j <= toCol; j++) {
+                sprites.draw(g, tileAt(i * cols + j), j * size, i * size);
+            }
+        }
+        if (probabilities != null) {
+            paintHeatmap(g, fromRow, toRow, fromCol, toCol);
+        }
+        if (hintCell >= 0) {
+            g.setColor(HINT_COLOUR);
+            int x = (hintCell % cols) * size, y = (hintCell / cols) * size;
+            for (int border = 0; border < Math.max(size / 10, 2); border++) {
+                g.drawRect(x + border, y + border, size - 1 - 2 * border, size - 1 - 2 * border);
             }
-        } else if (SwingUtilities.isRightMouseButton(event) && button.isInteractive()) {
-            button.setSus(!button.isSus());
         }
     }
 
+    /** Paints the heatmap over the hidden cells among the given ones. */
+    private void paintHeatmap(Graphics g, int fromRow, int toRow, int fromCol, int toCol) {
+        final int size = cellSize;
+        for (int i = fromRow; i <= toRow; i++) {
+            for (int j = fromCol; j <= toCol; j++) {
+                int index = i * cols + j;
+                if (tileAt(index) != SpriteCache.HIDDEN) continue;
+                g.setColor(HEATMAP_COLOURS[(int) Math.round(probabilities.of(index) * 100)]);
+                g.fillRect(j * size, i * size, size, size);
+            }
+        }
+    }
+
+    /**
+     * Paints the given cells with the average colour of their sprites,
+     * by drawing a single pixel per cell into a buffer, and drawing the
+     * buffer magnified to the cell size.
+     */
+    private void paintCellsAsPixels(Graphics g, int fromRow, int toRow, int fromCol, int toCol) {
+        int width = toCol - fromCol + 1;
+        int height = toRow - fromRow + 1;
+        if (pixelBuffer == null || pixelBuffer.getWidth() < width || pixelBuffer.getHeight() < height) {
+            pixelBuffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        int[] pixels = ((DataBufferInt) pixelBuffer.getRaster().getDataBuffer()).getData();
+        int stride = pixelBuffer.getWidth();
+        for (int i = fromRow; i <= toRow; i++) {
+            int offset = (i - fromRow) * stride - fromCol;
+            for (int j = fromCol; j <= toCol; j++) {
+                pixels[offset + j] = SpriteCache.averageColour(tileAt(i * cols + j));
+            }
+        }
+        final int size = cellSize;
+        g.drawImage(
+                pixelBuffer,
+                fromCol * size, fromRow * size, (toCol + 1) * size, (toRow + 1) * size,
+                0, 0, width, height,
+                null
+        );
+    }
+
+    private int tileAt(int index) {
+        return (tiles[index >> 1] >> ((index & 1) << 2)) & 0xF;
+    }
+
+    private void setTileAt(int index, int sprite) {
+        int shift = (index & 1) << 2;
+        int i = index >> 1;
+        tiles[i] = (byte) ((tiles[i] & ~(0xF << shift)) | (sprite << shift));
+    }
+
+    /**
+     * Returns the sprite representing the current state of the given
+     * cell in the engine.
+     *
+     * @param x horizontal position of the cell.
+     * @param y vertical position of the cell.
+     * @return the index of a sprite in the {@link SpriteCache}
+     */
+    private int spriteOf(int x, int y) {
+        if (engine.isRevealed(x, y)) return SpriteCache.spriteOf(engine.getCell(x, y));
+        if (engine.isFlagged(x, y)) return SpriteCache.FLAGGED;
+        return SpriteCache.HIDDEN;
+    }
+
     /**
-     * Provides every {@code CellButton} neighbouring the one provided.
+     * The outcome of a single move: the cells it changed along with
+     * their new sprites, and the state of the game after the move.
      *
-     * <p>The search is performed on the {@link #cellButtons} of this
-     * instance.
+     * @param cells         the flat indices of the changed cells
+     * @param sprites       the new sprite of each changed cell
+     * @param status        the status of the game after the move
+     * @param seed          the seed of the board after the move
+     * @param fallbackBoard whether a regular board is played instead of
+     *                      one solvable without guessing
+     * @param endTime       the {@link System#currentTimeMillis()} of the
+     *                      move's completion
+     * @param duration      the time elapsed from the game's start to the
+     *                      move's completion, in nanoseconds
+     */
+    private record Batch(int[] cells, byte[] sprites, GameEngine.Status status,
+                         long seed, boolean fallbackBoard, long endTime, long duration) {
+    }
+
+    /**
+     * Collects the current sprites of the given cells into a batch.
+     * Must be called on the thread of the move executor.
      *
-     * @param button the {@code CellButton} in question.
-     * @return a {@code List&lt;CellButton&gt;} containing all buttons
-     *         neighbouring the above cellButton.
-     *         <i>Diagonal neighbours included.</i>
+     * @param changedCells the flat indices of the cells changed by a move
+     * @return the {@link Batch} describing the move
      */
-    private List<CellButton> getNeighbours(CellButton button) {
-        return cellButtons.stream()
-                .filter(cb -> cb.isNeighbourOf(button))
-                .collect(Collectors.toList());
+    private Batch batchOf(int[] changedCells) {
+        // Measured before the batch waits for the Event Dispatch Thread:
+        long endTime = System.currentTimeMillis();
+        long duration = System.nanoTime() - startNanos;
+        byte[] newSprites = new byte[changedCells.length];
+        for (int i = 0; i < changedCells.length; i++) {
+            newSprites[i] = (byte) spriteOf(changedCells[i] / cols, changedCells[i] % cols);
+        }
+        return new Batch(changedCells, newSprites, engine.getStatus(),
+                engine.getSeed(), engine.isFallbackBoard(), endTime, duration);
     }
 
     /**
-     * Reveals all {@code CellButton}s neighbouring the one provided.
-     * If any of these newly revealed buttons have a value of '0',
-     * the method is recursively called on them.
+     * Applies every change of a batch to the tiles, then repaints the
+     * smallest rectangle enclosing the changed cells, once.
      *
-     * <p>This method can be used to automatically reveal chunks
-     * of '0' valued cellButtons of the instance, and the neighbouring
-     * trivial safe cells as well. Non-trivial cells won't be affected.
+     * @param batch the {@link Batch} to be applied
+     */
+    private void apply(Batch batch) {
+        if (batch.cells().length == 0) return;
+
+        int fromRow = Integer.MAX_VALUE, toRow = -1;
+        int fromCol = Integer.MAX_VALUE, toCol = -1;
+        for (int i = 0; i < batch.cells().length; i++) {
+            int index = batch.cells()[i];
+            setTileAt(index, batch.sprites()[i]);
+            int row = index / cols, col = index % cols;
+            fromRow = Math.min(fromRow, row);
+            toRow = Math.max(toRow, row);
+            fromCol = Math.min(fromCol, col);
+            toCol = Math.max(toCol, col);
+        }
+        final int size = cellSize;
+        repaint(fromCol * size, fromRow * size, (toCol - fromCol + 1) * size, (toRow - fromRow + 1) * size);
+    }
+
+    /**
+     * Zooms the board in or out around the mouse pointer if the Ctrl
+     * key is held down, otherwise passes the event on to the enclosing
+     * scroll pane.
+     */
+    private void processWheel(MouseWheelEvent event) {
+        if (!event.isControlDown()) {
+            getParent().dispatchEvent(SwingUtilities.convertMouseEvent(this, event, getParent()));
+            return;
+        }
+        double factor = Math.pow(ZOOM_STEP, -event.getPreciseWheelRotation());
+        int newSize = (int) Math.round(cellSize * factor);
+        if (newSize == cellSize) newSize += (factor > 1) ? 1 : -1;
+        newSize = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, newSize));
+        if (newSize == cellSize) return;
+
+        boolean wasSpriteSize = cellSize >= MIN_SPRITE_SIZE;
+        Point anchor = event.getPoint();
+        Point newAnchor = new Point(anchor.x * newSize / cellSize, anchor.y * newSize / cellSize);
+        cellSize = newSize;
+        if (cellSize >= MIN_SPRITE_SIZE) sprites = SpriteCache.forSize(cellSize);
+        if (wasSpriteSize && cellSize < MIN_SPRITE_SIZE) {
+            probabilities = null;
+        } else if (!wasSpriteSize && isHeatmapPainted()) {
+            moveExecutor.execute(this::computeProbabilities);
+        }
+        setPreferredSize(boardSize());
+        setSize(boardSize());
+
+        // Keep the cell under the mouse pointer in place:
+        if (getParent() instanceof JViewport viewport) {
+            Point position = viewport.getViewPosition();
+            Dimension extent = viewport.getExtentSize();
+            int viewX = position.x + newAnchor.x - anchor.x;
+            int viewY = position.y + newAnchor.y - anchor.y;
+            viewport.setViewPosition(new Point(
+                    Math.max(0, Math.min(viewX, getWidth() - extent.width)),
+                    Math.max(0, Math.min(viewY, getHeight() - extent.height))
+            ));
+        }
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Submits the move requested by a click to the move executor.
      *
-     * @param button the cellButton where the reveal should start.
-     *               <b>It should be called only on buttons with value
-     *               {@code '0'}!</b>
-     */
-    private void autoRevealZeros(CellButton button) {
-        for (CellButton cb : getNeighbours(button)) {
-            if (cb.isInteractive()) {
-                cb.reveal();
-                if (cb.getValue() == '0') autoRevealZeros(cb);
+     * <p>The move is decided and performed on the executor's thread,
+     * as only that thread may access the engine. Its outcome is then
+     * handed back to the Event Dispatch Thread as a {@link Batch}.
+     */
+    private void processClick(MouseEvent event) {
+        int x = event.getY() / cellSize;
+        int y = event.getX() / cellSize;
+        if (x < 0 || y < 0 || x >= rows || y >= cols) return;
+
+        boolean leftClick = SwingUtilities.isLeftMouseButton(event);
+        if (!leftClick && !SwingUtilities.isRightMouseButton(event)) return;
+        boolean heatmapPainted = isHeatmapPainted();
+        moveExecutor.execute(() -> {
+            int[] changedCells;
+            if (leftClick) {
+                changedCells = engine.isRevealed(x, y)
+                        ? engine.chord(x, y)
+                        : engine.reveal(x, y);
+            } else {
+                changedCells = engine.toggleFlag(x, y);
+            }
+            Batch batch = batchOf(changedCells);
+            SwingUtilities.invokeLater(() -> processBatch(batch));
+            if (probabilityEngine != null) probabilityEngine.update(changedCells);
+            if (heatmapPainted && changedCells.length > 0) {
+                computeProbabilities();
             }
+        });
+    }
+
+    /**
+     * Checks whether the heatmap is visible, and the cells are large
+     * enough for it to be painted. Must be called on the Event Dispatch
+     * Thread.
+     */
+    private boolean isHeatmapPainted() {
+        return heatmapVisible && cellSize >= MIN_SPRITE_SIZE;
+    }
+
+    /**
+     * Computes the mine probabilities of the cells, and hands them to
+     * the Event Dispatch Thread to be painted, if the heatmap is still
+     * painted by then. Must be called on the thread of the move executor.
+     */
+    private void computeProbabilities() {
+        if (engine.getStatus() != GameEngine.Status.PLAYING) return;
+        ProbabilityEngine.Probabilities newProbabilities = probabilityEngine().computeProbabilities();
+        SwingUtilities.invokeLater(() -> {
+            if (!isHeatmapPainted()) return;
+            probabilities = newProbabilities;
+            repaint();
+        });
+    }
+
+    /**
+     * Returns the probability engine of the game, creating it upon the
+     * first call, thus games played without assistance never pay for it.
+     * Once created, it is updated with every move. Must be called on the
+     * thread of the move executor.
+     */
+    private ProbabilityEngine probabilityEngine() {
+        if (probabilityEngine == null) {
+            probabilityEngine = new ProbabilityEngine(engine);
         }
+        return probabilityEngine;
     }
 
     /**
-     * Checks if the current game-state qualifies as a victory
-     * or not.
+     * Outlines the hidden cell least likely to hide a mine, until the
+     * next move. The cell is chosen on the move executor, after every
+     * move submitted so far.
+     */
+    public void showHint() {
+        moveExecutor.execute(() -> {
+            if (engine.getStatus() != GameEngine.Status.PLAYING) return;
+            ProbabilityEngine probabilityEngine = probabilityEngine();
+            int guess = probabilityEngine.bestGuess(probabilityEngine.computeProbabilities());
+            SwingUtilities.invokeLater(() -> {
+                if (guess < 0) return;
+                hintCell = guess;
+                repaint();
+            });
+        });
+    }
+
+    /**
+     * Shows or hides the heatmap of the mine probabilities.
      *
-     * @return true, if the game is won, false otherwise.
-     */
-    /*
-     * The game is considered "won", if all cells that are not
-     * hiding a mine are revealed (their 'interactive' field
-     * is false). This state means that every mine cell is
-     * either untouched or marked as suspected - and no safe
-     * cell is marked as suspected either.
+     * @param visible true, if the heatmap should be shown
+     */
+    public void setHeatmapVisible(boolean visible) {
+        heatmapVisible = visible;
+        if (isHeatmapPainted()) {
+            moveExecutor.execute(this::computeProbabilities);
+        } else {
+            probabilities = null;
+            repaint();
+        }
+    }
+
+    /**
+     * Displays the outcome of a move, and concludes the game if the move
+     * ended it. Must be called on the Event Dispatch Thread.
      *
-     * Thus, we can count the cells for which it is true that:
-     *     1) they are not hiding mines, and
-     *     2) they have not been revealed.
-     * If the number of such cells is exactly '0', the game can
-     * be considered won.
-     */
-    private boolean isVictory() {
-        return cellButtons.stream()
-                .filter(cb -> !cb.isMine())
-                .noneMatch(CellButton::isInteractive);
+     * @param batch the {@link Batch} produced by the move
+     */
+    private void processBatch(Batch batch) {
+        apply(batch);
+        if (batch.cells().length == 0) return;
+        if (batch.fallbackBoard() && !fallbackReported) {
+            fallbackReported = true;
+            JOptionPane.showMessageDialog(null,
+                    "No board solvable without guessing was found, this one may require guessing.");
+        }
+        if (hintCell >= 0) {
+            hintCell = -1;
+            repaint();
+        }
+        if (batch.status() == GameEngine.Status.PLAYING) return;
+
+        if (probabilities != null) {
+            probabilities = null;
+            repaint();
+        }
+
+        gameConfig.setEndTime(batch.endTime());
+        gameConfig.setDuration(batch.duration());
+        // The board may have been generated upon the first reveal, thus
+        // its seed is only known from the moves:
+        gameConfig.setSeed(batch.seed());
+        if (batch.status() == GameEngine.Status.LOST) {
+            JOptionPane.showMessageDialog(null, "Sadly you lost. :(");
+            return;
+        }
+        int score = gameConfig.calculateScore();
+        Player player = gameConfig.getPlayer();
+        int mineCount = gameConfig.getMineCount();
+        long duration = gameConfig.getDuration(), endTime = gameConfig.getEndTime(), seed = gameConfig.getSeed();
+        // Saving the score involves database access, thus it is
+        // performed off the Event Dispatch Thread as well, even if a new
+        // game has been started since:
+        scoreExecutor.execute(() -> {
+            ScoreCategory category = player.saveScore(score, rows, cols, mineCount, duration, endTime, seed);
+            SwingUtilities.invokeLater(() -> {
+                String message = null;
+                switch (category) {
+                    case HIGH_SCORE    -> message = "HIGH SCORE! Congratulations!";
+                    case PERSONAL_BEST -> message = "This is your current personal best! Keep up!";
+                    case REGULAR       -> message = "Congratulations, you won!";
+                }
+                JOptionPane.showMessageDialog(null, message + " Your score: " + score);
+            });
+        });
+    }
+
+    /**
+     * Stops accepting moves. Moves already submitted are still
+     * performed, but the instance should be discarded afterwards.
+     */
+    public void shutdown() {
+        moveExecutor.shutdown();
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return cellSize;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        int extent = (orientation == SwingConstants.VERTICAL) ? visibleRect.height : visibleRect.width;
+        return Math.max(extent - cellSize, cellSize);
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
     }
 }
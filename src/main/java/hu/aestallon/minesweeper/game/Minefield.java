@@ -1,13 +1,27 @@
 package hu.aestallon.minesweeper.game;
 
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Provides objects representing the values of a Minesweeper board.
  *
  * <p>The {@link #Minefield(int, int, int)} constructor can be called to
- * generate a pseudorandom board. Individual cell values can be
+ * generate a pseudorandom board. Every board is generated from a
+ * {@code long} seed (see {@link #getSeed()}), and the
+ * {@link #Minefield(int, int, int, long)} constructor regenerates the
+ * exact same board from its size, mine count and seed.
+ *
+ * <p>Boards created with {@link #lazy(int, int, int)} defer placing
+ * their mines until {@link #placeMines(int, int, boolean)} is called
+ * with the first cell revealed by the player, which is kept safe.
+ *
+ * <p>Individual cell values can be
  * accessed with the {@link #getCell(int, int)} method. These values
  * are returned as {@code char}s, and can be interpreted as follows:
  *
@@ -18,148 +32,443 @@ import java.util.concurrent.ThreadLocalRandom;
  * <li>Cells with value {@link #MINE} represent a mine.
  * </ul>
  *
+ * <p>The board is stored in a single flat {@code byte[]}, packing two
+ * cells into every byte (4 bits per cell). The cell at row {@code x}
+ * and column {@code y} has the index {@code x * cols + y}, and is kept
+ * in the low nibble of its byte if its index is even, in the high
+ * nibble otherwise. The revealed and flagged state of the cells are
+ * tracked in two separate {@link BitSet}s using the same indices.
+ * The {@link #reveal(int, int)} method reveals a cell (and the empty
+ * region around it), and returns the indices of the newly revealed
+ * cells.
+ *
  * <p>The {@link #print()} method is provided for debugging purposes.
  */
 public class Minefield {
 
     /** The value representing a mine in a minesweeper board. */
     public static final char MINE = 'x';
-    private static final ThreadLocalRandom RND = ThreadLocalRandom.current();
+    private static final int[] NO_CELLS = {};
+    /** The 4-bit value representing a mine in the packed cell array. */
+    static final int MINE_VALUE = 9;
+    /** Boards with at least this many cells are solved in parallel. */
+    static final int PARALLEL_THRESHOLD = 1 << 20;
+    /** The minimum number of rows solved by a single parallel task. */
+    static final int MIN_BAND_ROWS = 64;
 
-    private final char[][] cells;
+    private final int rows;
+    private final int cols;
+    private final int mineCount;
+    private long seed;
+    private final byte[] cells;
+    private final BitSet revealed;
+    private final BitSet flagged;
+
+    private boolean minesPlaced = false;
+    /** The number of cells that are neither mines, nor revealed. */
+    private int hiddenSafeCellCount;
 
     /**
      * Constructs a fully solved, pseudorandom Minesweeper
      * board with the provided size and mine count.
      *
+     * <p>The board is generated from a randomly chosen seed, which can
+     * be queried with {@link #getSeed()}.
+     *
      * @param rows      the {@code int} number of rows in the board
      * @param cols      the {@code int} number of columns in the board
      * @param mineCount the {@code int} number of mines to
      *                  be placed in the board.
      */
     public Minefield(int rows, int cols, int mineCount) {
-        cells = createMinefield(rows, cols, mineCount);
+        this(rows, cols, mineCount, ThreadLocalRandom.current().nextLong());
     }
 
     /**
-     * Creates a minesweeper board of the specified size.
+     * Constructs a fully solved Minesweeper board with the provided
+     * size and mine count, deterministically generated from the given
+     * seed.
      *
-     * <p>Entries denoting a mine contain the {@code MINE} constant, and
-     * these are spread in a pseudorandom manner. All other entries contain
-     * the number of neighbouring mine cells.
+     * <p>Instances created with the same arguments are guaranteed to
+     * hold the same board.
      *
-     * @param rows      {@code int} number of rows of the board
-     * @param cols      {@code int} number of columns of the board
-     * @param mineCount {@code int} specifying the number of randomly placed
-     *                  mines in the board.
-     * @return a {@code char[][]} array containing the "solved" cells of a
-     *         minefield.
+     * @param rows      the {@code int} number of rows in the board
+     * @param cols      the {@code int} number of columns in the board
+     * @param mineCount the {@code int} number of mines to
+     *                  be placed in the board.
+     * @param seed      the {@code long} seed of the board
      */
-    private static char[][] createMinefield(int rows, int cols, int mineCount) {
-        int[][] intMinefield = new int[rows][cols];
-        fillWithMines(intMinefield, mineCount);
-        fillWithNumbers(intMinefield);
-        return convertToCharArray(intMinefield);
+    public Minefield(int rows, int cols, int mineCount, long seed) {
+        this(rows, cols, mineCount, seed, 0);
+        placeMines(NO_CELLS);
+    }
+
+    private Minefield(int rows, int cols, int mineCount, long seed, int safeCellCount) {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("A minefield must have at least one row and column!");
+        }
+        int cellCount = Math.multiplyExact(rows, cols);
+        if (mineCount < 0 || mineCount > cellCount - safeCellCount) {
+            throw new IllegalArgumentException(String.format(
+                    "Cannot place %d mines in a minefield of %d cells!",
+                    mineCount, cellCount
+            ));
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.mineCount = mineCount;
+        this.seed = seed;
+        hiddenSafeCellCount = cellCount - mineCount;
+        cells = new byte[(cellCount + 1) / 2];
+        revealed = new BitSet(cellCount);
+        flagged = new BitSet(cellCount);
+    }
 
+    /**
+     * Creates a Minesweeper board with the provided size and mine
+     * count, without placing the mines yet.
+     *
+     * <p>The mines should be placed by calling
+     * {@link #placeMines(int, int, boolean)} once the first cell to be
+     * revealed is known, thus the first reveal is guaranteed to be
+     * safe. Until then, the values of the cells cannot be queried, but
+     * their revealed and flagged state can already be changed.
+     *
+     * @param rows      the {@code int} number of rows in the board
+     * @param cols      the {@code int} number of columns in the board
+     * @param mineCount the {@code int} number of mines to be placed in
+     *                  the board, at most one less than the number of
+     *                  cells
+     * @return a new minefield without any mines placed
+     */
+    public static Minefield lazy(int rows, int cols, int mineCount) {
+        return lazy(rows, cols, mineCount, ThreadLocalRandom.current().nextLong());
     }
 
     /**
-     * Takes an {@code int[][]} array as input, and sets the specified
-     * amount of its entries to {@link #MINE}. The position of these
-     * entries are acquired in a pseudorandom manner.
+     * Creates a Minesweeper board with the provided size, mine count and
+     * seed, without placing the mines yet.
      *
-     * <p><b>Warning!</b> If the {@code mine-count} is greater than the
-     * number of elements in the {@code minefield} array, the method
-     * will run endlessly!
+     * <p>Boards created with the same arguments will hold the same
+     * mines if their first reveal is made on the same cell.
      *
-     * @param minefield a {@code int[][]} array, preferably all its
-     *                  entries should be 0.
-     * @param mineCount the number of entries to be changed to
-     *                  {@link #MINE}.
+     * @param rows      the {@code int} number of rows in the board
+     * @param cols      the {@code int} number of columns in the board
+     * @param mineCount the {@code int} number of mines to be placed in
+     *                  the board, at most one less than the number of
+     *                  cells
+     * @param seed      the {@code long} seed of the board
+     * @return a new minefield without any mines placed
+     * @see #lazy(int, int, int)
      */
-    private static void fillWithMines(int[][] minefield, int mineCount) {
-        int i = 0;
-        while (i < mineCount) {
-            int x = RND.nextInt(minefield.length);
-            int y = RND.nextInt(minefield[0].length);
+    public static Minefield lazy(int rows, int cols, int mineCount, long seed) {
+        return new Minefield(rows, cols, mineCount, seed, 1);
+    }
 
-            if (minefield[x][y] != MINE) {
-                minefield[x][y] = MINE;
-                i++;
+    /**
+     * Places the mines of a board created by {@link #lazy(int, int, int)},
+     * keeping the given cell free of mines.
+     *
+     * <p>If {@code safeNeighbourhood} is set, the Moore-neighbours of the
+     * cell are kept free of mines as well (guaranteeing the cell to be a
+     * {@code '0'}), provided that the board has enough cells left for
+     * the mines. Otherwise, only the given cell is guaranteed to be safe.
+     *
+     * @param x                 horizontal position of the safe cell.
+     * @param y                 vertical position of the safe cell.
+     * @param safeNeighbourhood whether the neighbours of the safe cell
+     *                          should be kept free of mines as well
+     * @throws IllegalStateException if the mines have already been
+     *                               placed
+     */
+    public void placeMines(int x, int y, boolean safeNeighbourhood) {
+        checkBounds(x, y);
+        if (minesPlaced) {
+            throw new IllegalStateException("Mines have already been placed!");
+        }
+        int fromRow = Math.max(x - 1, 0), toRow = Math.min(x + 1, rows - 1);
+        int fromCol = Math.max(y - 1, 0), toCol = Math.min(y + 1, cols - 1);
+        int neighbourhoodSize = (toRow - fromRow + 1) * (toCol - fromCol + 1);
+
+        int[] excluded;
+        if (safeNeighbourhood && mineCount <= rows * cols - neighbourhoodSize) {
+            excluded = new int[neighbourhoodSize];
+            int i = 0;
+            for (int r = fromRow; r <= toRow; r++) {
+                for (int c = fromCol; c <= toCol; c++) {
+                    excluded[i++] = toIndex(r, c);
+                }
             }
+        } else {
+            excluded = new int[]{toIndex(x, y)};
         }
+        placeMines(excluded);
     }
 
     /**
-     * Transforms an incomplete {@code int[][] minefield} into a
-     * solved one.
+     * Turns this minefield into a new lazy board of the given seed, as if
+     * it was created by {@link #lazy(int, int, int, long)}, reusing its
+     * arrays. Lets the {@link NoGuessGenerator} try many candidates
+     * without allocating a board for each.
      *
-     * <p>An {@code int[][]} array is taken as input, which is
-     * partially complete: entries symbolising mines should be set
-     * already to {@link #MINE}, the rest should be {@code 0}.
+     * @param seed the {@code long} seed of the new board
+     */
+    void reset(long seed) {
+        this.seed = seed;
+        Arrays.fill(cells, (byte) 0);
+        revealed.clear();
+        flagged.clear();
+        minesPlaced = false;
+        hiddenSafeCellCount = rows * cols - mineCount;
+    }
+
+    /**
+     * Checks whether the mines of this minefield have been placed.
      *
-     * <p>All non-mine entries are set to represent the number of
-     * Moore-neighbouring mines the given entry has.
+     * @return true, if the mines are placed and the cell values can be
+     *         queried, false if {@link #placeMines(int, int, boolean)}
+     *         is yet to be called
+     */
+    public boolean areMinesPlaced() {
+        return minesPlaced;
+    }
+
+    private void placeMines(int[] excluded) {
+        fillWithMines(excluded, new SplittableRandom(seed));
+        fillWithNumbers();
+        minesPlaced = true;
+    }
+
+    /**
+     * Sets {@link #mineCount} cells to {@link #MINE_VALUE}. The position
+     * of these cells are acquired in a pseudorandom manner.
      *
-     * @param minefield an {@code int[][]} array with some entries
-     *                  already set to {@link #MINE}.
+     * <p>If more than half of the available cells should be mines, the
+     * whole board is filled with mines, and the safe cells are sampled
+     * instead. This way the number of random picks never exceeds half
+     * the number of cells.
+     *
+     * @param excluded the ascending indices of the cells which must not
+     *                 become mines
+     * @param rnd      the source of randomness
      */
-    private static void fillWithNumbers(int[][] minefield) {
-        for (int i = 0; i < minefield.length; i++) {
-            for (int j = 0; j < minefield[0].length; j++) {
-                if (minefield[i][j] == MINE) {
-                    incrementNotMineNeighbours(minefield, i, j);
-                }
+    private void fillWithMines(int[] excluded, RandomGenerator rnd) {
+        int availableCount = rows * cols - excluded.length;
+        if (mineCount > availableCount / 2) {
+            Arrays.fill(cells, (byte) (MINE_VALUE << 4 | MINE_VALUE));
+            for (int index : excluded) {
+                setValueAt(index, 0);
             }
+            sampleCells(availableCount - mineCount, 0, excluded, rnd);
+        } else {
+            sampleCells(mineCount, MINE_VALUE, excluded, rnd);
+        }
+    }
+
+    /**
+     * Sets exactly {@code count} distinct, uniformly chosen cells to the
+     * given value, none of which held this value before.
+     *
+     * <p>Uses Robert Floyd's sampling algorithm, which draws exactly one
+     * random number per sampled cell, and uses the board itself to
+     * remember which cells have been picked already. Thus, it always
+     * terminates in {@code O(count)} time without any extra memory.
+     *
+     * <p>The sampling is performed over the available cells only: a
+     * sampled position is mapped to a cell index by skipping over the
+     * excluded cells preceding it.
+     *
+     * @param count    the number of cells to be sampled
+     * @param value    the value to be set in the sampled cells, no
+     *                 available cell may hold this value beforehand
+     * @param excluded the ascending indices of the cells which must not
+     *                 be sampled
+     * @param rnd      the source of randomness
+     */
+    private void sampleCells(int count, int value, int[] excluded, RandomGenerator rnd) {
+        int availableCount = rows * cols - excluded.length;
+        for (int j = availableCount - count; j < availableCount; j++) {
+            int t = skipExcluded(rnd.nextInt(j + 1), excluded);
+            setValueAt((valueAt(t) == value) ? skipExcluded(j, excluded) : t, value);
+        }
+    }
+
+    private static int skipExcluded(int position, int[] excluded) {
+        for (int index : excluded) {
+            if (position >= index) position++;
+            else break;
+        }
+        return position;
+    }
+
+    /**
+     * Transforms the partially complete minefield into a solved one.
+     *
+     * <p>Cells symbolising mines should be set already to
+     * {@link #MINE_VALUE}, the rest should be {@code 0}. All non-mine
+     * cells are set to represent the number of Moore-neighbouring mines
+     * the given cell has.
+     *
+     * <p>Boards of at least {@link #PARALLEL_THRESHOLD} cells are split
+     * into bands of rows, which are processed in parallel on the common
+     * {@link ForkJoinPool}.
+     */
+    private void fillWithNumbers() {
+        if (isSolvedInParallel(rows, cols)) {
+            ForkJoinPool.commonPool().invoke(new FillWithNumbersTask(0, rows));
+        } else {
+            fillRowsWithNumbers(0, rows);
         }
     }
 
     /**
-     * @param arr an {@code int[][]} array to be modified
-     * @param r   the {@code int} row of a given entry
-     * @param c   the {@code int} column of a given entry
+     * Checks whether the numbers of a board of the given size are filled
+     * in parallel.
+     *
+     * @param rows the {@code int} number of rows in the board
+     * @param cols the {@code int} number of columns in the board
+     * @return true, if the board has at least {@link #PARALLEL_THRESHOLD}
+     *         cells, and enough rows for two bands
      */
-    private static void incrementNotMineNeighbours(int[][] arr, int r, int c) {
-        final int[] dirs = {-1, 0, 1};
-        for (int dirR : dirs) {
-            for (int dirC : dirs) {
-                int rowPos = r + dirR;
-                int colPos = c + dirC;
-                if ((rowPos >= 0 && rowPos < arr.length) &&
-                        (colPos >= 0 && colPos < arr[0].length) &&
-                        (arr[rowPos][colPos] != MINE) &&
-                        !(dirR == 0 && dirC == 0)
-                ) {
-                    arr[rowPos][colPos]++;
+    static boolean isSolvedInParallel(int rows, int cols) {
+        return (long) rows * cols >= PARALLEL_THRESHOLD && rows >= 2 * MIN_BAND_ROWS;
+    }
+
+    /**
+     * Sets the neighbour count of every non-mine cell in the given rows.
+     *
+     * <p>The counts are calculated as a 3x3 box-sum over the mine
+     * indicators of the board: first the vertical sums of every column
+     * are taken over the row and its two neighbours, then three
+     * adjacent vertical sums are added up. The inner loops contain no
+     * branches, mine cells are kept intact by a multiplicative select.
+     *
+     * <p>Only the rows {@code [fromRow, toRow)} are written, while the
+     * rows directly above and below (the halo) are only read. As filling
+     * in the numbers never changes whether a cell is a mine, the halo
+     * may be written concurrently by the task owning it, as long as no
+     * byte of the packed array is shared between the two bands.
+     *
+     * @param fromRow the first row to be filled, inclusive
+     * @param toRow   the last row to be filled, exclusive
+     */
+    private void fillRowsWithNumbers(int fromRow, int toRow) {
+        // padded with an always-zero column on both sides:
+        int[] columnSums = new int[cols + 2];
+        for (int r = fromRow; r < toRow; r++) {
+            int base = r * cols;
+            for (int c = 0; c < cols; c++) {
+                columnSums[c + 1] = mineIndicator(base + c);
+            }
+            if (r > 0) {
+                for (int c = 0; c < cols; c++) {
+                    columnSums[c + 1] += mineIndicator(base - cols + c);
+                }
+            }
+            if (r < rows - 1) {
+                for (int c = 0; c < cols; c++) {
+                    columnSums[c + 1] += mineIndicator(base + cols + c);
                 }
             }
+            for (int c = 0; c < cols; c++) {
+                int sum = columnSums[c] + columnSums[c + 1] + columnSums[c + 2];
+                int isMine = mineIndicator(base + c);
+                setValueAt(base + c, sum + isMine * (MINE_VALUE - sum));
+            }
         }
     }
 
     /**
-     * Converts an {@code int[][]} minefield into a {@code char[][]}
-     * version. Digits are preserved as characters, {@link #MINE}
-     * entries are outright copied.
+     * Returns {@code 1} if the given cell is a mine, {@code 0} otherwise,
+     * without branching.
+     *
+     * <p>Relies on {@link #MINE_VALUE} being the only value above
+     * {@code 8}: adding {@code 7} to it yields {@code 16}, while every
+     * possible neighbour count stays below.
      *
-     * @param minefield an {@code int[][]} array representing a
-     *                  minesweeper board.
-     * @return a {@code char[][]} array doing the same.
+     * @param index the flat index of the cell
+     * @return the mine indicator of the cell
      */
-    private static char[][] convertToCharArray(int[][] minefield) {
-        char[][] result = new char[minefield.length][minefield[0].length];
-        for (int i = 0; i < minefield.length; i++) {
-            for (int j = 0; j < minefield[0].length; j++) {
-                if (minefield[i][j] == MINE) result[i][j] = MINE;
-                else result[i][j] = (char) (minefield[i][j] + '0');
+    private int mineIndicator(int index) {
+        return (valueAt(index) + 7) >>> 4;
+    }
+
+    /**
+     * Fills in the numbers of a band of rows, recursively splitting it
+     * into halves until the bands are narrow enough.
+     */
+    private final class FillWithNumbersTask extends RecursiveAction {
+        private final int fromRow;
+        private final int toRow;
+
+        private FillWithNumbersTask(int fromRow, int toRow) {
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow < 2 * MIN_BAND_ROWS) {
+                fillRowsWithNumbers(fromRow, toRow);
+                return;
             }
+            int mid = (fromRow + toRow) >>> 1;
+            // With an odd column count, a band starting at an odd row
+            // would share its first byte with the previous band:
+            if ((cols & 1) == 1) mid &= ~1;
+            invokeAll(
+                    new FillWithNumbersTask(fromRow, mid),
+                    new FillWithNumbersTask(mid, toRow)
+            );
+        }
+    }
+
+    /**
+     * Returns the 4-bit value stored for the cell with the given index.
+     *
+     * @param index the flat index of the cell
+     * @return the number of neighbouring mines, or {@link #MINE_VALUE}
+     */
+    int valueAt(int index) {
+        return (cells[index >> 1] >> ((index & 1) << 2)) & 0xF;
+    }
+
+    private void setValueAt(int index, int value) {
+        int shift = (index & 1) << 2;
+        int i = index >> 1;
+        cells[i] = (byte) ((cells[i] & ~(0xF << shift)) | (value << shift));
+    }
+
+    /**
+     * Converts a row and column position to the flat index of the cell.
+     *
+     * @param x the row of the cell
+     * @param y the column of the cell
+     * @return the index of the cell in the packed arrays
+     */
+    int toIndex(int x, int y) {
+        return x * cols + y;
+    }
+
+    private void checkBounds(int x, int y) {
+        if (x < 0 || y < 0 || x >= rows || y >= cols) {
+            throw new ArrayIndexOutOfBoundsException(String.format(
+                    "Index [%d, %d] is out of bounds for minefield of size %dx%d!",
+                    x, y, rows, cols
+            ));
+        }
+    }
+
+    private void checkMinesPlaced() {
+        if (!minesPlaced) {
+            throw new IllegalStateException("Mines have not been placed yet!");
         }
-        return result;
     }
 
     /**
      * Returns the {@code char} value of a minefield's cell. If the
-     * parameters are out of bounds, the {@code null character} is
-     * returned.
+     * parameters are out of bounds, an
+     * {@code ArrayIndexOutOfBoundsException} is thrown.
      *
      * @param x horizontal position of the cell.
      * @param y vertical position of the cell.
@@ -167,21 +476,204 @@ public class Minefield {
      *         in the cell.
      */
     public char getCell(int x, int y) {
-        if (x < 0 || y < 0 || x >= cells.length || y >= cells[0].length) {
-            throw new ArrayIndexOutOfBoundsException(String.format(
-                    "Index [%d, %d] is out of bounds for minefield of size %dx%d!",
-                    x, y, cells.length, cells[0].length
-            ));
-        } else {
-            return cells[x][y];
+        checkBounds(x, y);
+        checkMinesPlaced();
+        int value = valueAt(toIndex(x, y));
+        return (value == MINE_VALUE) ? MINE : (char) (value + '0');
+    }
+
+    /**
+     * Checks whether the given cell hides a mine.
+     *
+     * @param x horizontal position of the cell.
+     * @param y vertical position of the cell.
+     * @return true, if the cell is a mine, false otherwise.
+     */
+    public boolean isMine(int x, int y) {
+        checkBounds(x, y);
+        checkMinesPlaced();
+        return valueAt(toIndex(x, y)) == MINE_VALUE;
+    }
+
+    /**
+     * Returns the number of rows in this minefield.
+     *
+     * @return the {@code int} number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns in this minefield.
+     *
+     * @return the {@code int} number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Returns the number of mines in this minefield.
+     *
+     * @return the {@code int} number of mines
+     */
+    public int getMineCount() {
+        return mineCount;
+    }
+
+    /**
+     * Returns the seed this minefield was generated from.
+     *
+     * @return the {@code long} seed, which regenerates this board when
+     *         passed to {@link #Minefield(int, int, int, long)} along
+     *         with the size and mine count
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Checks whether the given cell has been revealed.
+     *
+     * @param x horizontal position of the cell.
+     * @param y vertical position of the cell.
+     * @return true, if the cell is revealed, false otherwise.
+     */
+    public boolean isRevealed(int x, int y) {
+        checkBounds(x, y);
+        return revealed.get(toIndex(x, y));
+    }
+
+    /**
+     * Marks the given cell as revealed, without revealing any of its
+     * neighbours.
+     *
+     * @param x horizontal position of the cell.
+     * @param y vertical position of the cell.
+     */
+    public void setRevealed(int x, int y) {
+        checkBounds(x, y);
+        checkMinesPlaced();
+        int index = toIndex(x, y);
+        if (!revealed.get(index)) {
+            revealed.set(index);
+            if (valueAt(index) != MINE_VALUE) hiddenSafeCellCount--;
         }
     }
 
+    /**
+     * Returns the number of cells which are not mines, and are yet to
+     * be revealed.
+     *
+     * <p>The count is maintained on every reveal, thus calling this
+     * method costs constant time.
+     *
+     * @return the {@code int} number of hidden safe cells
+     */
+    public int getHiddenSafeCellCount() {
+        return hiddenSafeCellCount;
+    }
+
+    /**
+     * Checks whether every cell not hiding a mine has been revealed.
+     *
+     * @return true, if no hidden safe cells remain, false otherwise.
+     */
+    public boolean isCleared() {
+        return hiddenSafeCellCount == 0;
+    }
+
+    /**
+     * Reveals the given cell. If the cell has no neighbouring mines,
+     * its neighbours are revealed as well, and so on, until the whole
+     * empty region and its numbered border is revealed.
+     *
+     * <p>The region is filled in a breadth-first manner, without any
+     * recursion: the returned array doubles as the queue of the search,
+     * and the revealed cells serve as the visited set. Thus, every cell
+     * is visited at most once, regardless of the size of the region.
+     * Flagged cells are never revealed, and stop the fill.
+     *
+     * @param x horizontal position of the cell.
+     * @param y vertical position of the cell.
+     * @return the flat indices ({@code x * cols + y}) of every cell
+     *         revealed by this call, starting with the given cell, or
+     *         an empty array if the cell is already revealed or
+     *         flagged
+     */
+    public int[] reveal(int x, int y) {
+        checkBounds(x, y);
+        checkMinesPlaced();
+        int start = toIndex(x, y);
+        if (revealed.get(start) || flagged.get(start)) return NO_CELLS;
+
+        int[] batch = new int[16];
+        int size = 0;
+        revealed.set(start);
+        batch[size++] = start;
+        for (int head = 0; head < size; head++) {
+            int index = batch[head];
+            int value = valueAt(index);
+            if (value != MINE_VALUE) hiddenSafeCellCount--;
+            if (value != 0) continue;
+
+            int r = index / cols, c = index % cols;
+            for (int i = Math.max(r - 1, 0); i <= Math.min(r + 1, rows - 1); i++) {
+                for (int j = Math.max(c - 1, 0); j <= Math.min(c + 1, cols - 1); j++) {
+                    int neighbour = toIndex(i, j);
+                    if (revealed.get(neighbour) || flagged.get(neighbour)) continue;
+
+                    revealed.set(neighbour);
+                    if (size == batch.length) {
+                        batch = Arrays.copyOf(batch, (int) Math.min(2L * size, (long) rows * cols));
+                    }
+                    batch[size++] = neighbour;
+                }
+            }
+        }
+        return Arrays.copyOf(batch, size);
+    }
+
+    /**
+     * Checks whether the given cell is flagged as "suspected to be
+     * hiding a mine".
+     *
+     * @param x horizontal position of the cell.
+     * @param y vertical position of the cell.
+     * @return true, if the cell is flagged, false otherwise.
+     */
+    public boolean isFlagged(int x, int y) {
+        checkBounds(x, y);
+        return flagged.get(toIndex(x, y));
+    }
+
+    /**
+     * Flags or un-flags the given cell as "suspected to be hiding a
+     * mine".
+     *
+     * @param x       horizontal position of the cell.
+     * @param y       vertical position of the cell.
+     * @param flagged the new flagged state of the cell
+     */
+    public void setFlagged(int x, int y, boolean flagged) {
+        checkBounds(x, y);
+        this.flagged.set(toIndex(x, y), flagged);
+    }
+
     /** Prints the minefield's solution to standard output. */
     @SuppressWarnings("unused")
     public void print() {
-        for (char[] rowOfCells : cells) {
-            System.out.println(Arrays.toString(rowOfCells));
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            sb.setLength(0);
+            sb.append('[');
+            for (int j = 0; j < cols; j++) {
+                if (j > 0) sb.append(", ");
+                sb.append(getCell(i, j));
+            }
+            sb.append(']');
+            System.out.println(sb);
         }
     }
 
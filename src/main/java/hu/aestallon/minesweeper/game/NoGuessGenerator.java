@@ -0,0 +1,258 @@
+package hu.aestallon.minesweeper.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates boards which can be solved from their first revealed cell by
+ * pure logic, without ever guessing.
+ *
+ * <p>Candidate boards are generated from random seeds, with their mines
+ * placed around the first revealed cell, as regular lazy boards are.
+ * Every candidate is validated by playing it with a {@link Solver}, only
+ * revealing the cells it deduces to be safe: the candidate is accepted
+ * if the game is won. As the solver is sound, every accepted board is
+ * solvable without guessing, but some solvable boards may be rejected.
+ *
+ * <p>Candidates are generated and validated in parallel, by a fixed
+ * number of worker threads, each trying seeds until one of them finds a
+ * board. The first board found is returned, and the rest of the workers
+ * are stopped. If no board is found within the time budget, a regular
+ * board is returned instead, thus a game can always be started, and the
+ * {@link Generation} tells which of the two was returned.
+ *
+ * <p>Every worker keeps a board and a solver of its own, reused by each
+ * of its candidates, which take about {@link #BYTES_PER_CELL} bytes per
+ * cell. Thus, fewer workers search large boards, so that they fit in a
+ * quarter of the maximum heap, and boards of more than
+ * {@link #MAX_CELL_COUNT} cells are not searched at all: a regular board
+ * is returned right away.
+ *
+ * <p>Instances are thread-safe, and their workers are daemon threads
+ * kept alive between generations.
+ *
+ * @see GameEngine#GameEngine(int, int, int, NoGuessGenerator)
+ */
+public class NoGuessGenerator {
+
+    /**
+     * The default time budget of a single generation, in milliseconds.
+     * A large board is found in a few milliseconds, at most about 20 ms
+     * (see {@code NoGuessGeneratorBenchmark}), thus the first click of
+     * a game is never held up noticeably longer than a regular one.
+     */
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 100;
+    /** The largest board searched for, in cells. */
+    public static final int MAX_CELL_COUNT = 1 << 20;
+    /** The approximate memory used by a worker per cell of the board. */
+    static final int BYTES_PER_CELL = 16;
+
+    private static NoGuessGenerator noGuessGenerator = null;
+    private static final AtomicInteger threadNumbers = new AtomicInteger();
+
+    private final int threadCount;
+    private final long timeBudgetMillis;
+    private final ExecutorService workers;
+
+    /**
+     * The outcome of a generation.
+     *
+     * @param minefield the generated {@link Minefield}, with its mines
+     *                  placed and no cells revealed
+     * @param guessFree whether the board is solvable without guessing,
+     *                  false if a regular board was generated instead,
+     *                  as none was found within the time budget
+     */
+    public record Generation(Minefield minefield, boolean guessFree) {
+    }
+
+    /**
+     * Returns the generator shared by the games of the application, using
+     * every available core and the default time budget.
+     *
+     * @return the shared {@code NoGuessGenerator}
+     */
+    public static synchronized NoGuessGenerator getInstance() {
+        if (noGuessGenerator == null) {
+            noGuessGenerator = new NoGuessGenerator(
+                    Runtime.getRuntime().availableProcessors(),
+                    DEFAULT_TIME_BUDGET_MILLIS
+            );
+        }
+        return noGuessGenerator;
+    }
+
+    /**
+     * Creates a new generator.
+     *
+     * @param threadCount      the {@code int} number of worker threads, at
+     *                         least 1
+     * @param timeBudgetMillis the {@code long} time budget of a single
+     *                         generation, in milliseconds, not negative
+     */
+    public NoGuessGenerator(int threadCount, long timeBudgetMillis) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("There must be at least 1 thread!");
+        }
+        if (timeBudgetMillis < 0) {
+            throw new IllegalArgumentException("Invalid time budget!");
+        }
+        this.threadCount = threadCount;
+        this.timeBudgetMillis = timeBudgetMillis;
+        workers = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "minesweeper-generator-" + threadNumbers.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Generates a board solvable without guessing from the given cell.
+     *
+     * <p>The mines of the board are placed, keeping the given cell and
+     * its neighbours safe, as {@link Minefield#placeMines(int, int, boolean)}
+     * does, and no cell of the board is revealed.
+     *
+     * @param rows      the {@code int} number of rows in the board
+     * @param cols      the {@code int} number of columns in the board
+     * @param mineCount the {@code int} number of mines in the board
+     * @param x         horizontal position of the first revealed cell.
+     * @param y         vertical position of the first revealed cell.
+     * @return the {@link Generation} holding a {@link Minefield} solvable
+     *         without guessing, or a regular one if none is found within
+     *         the time budget
+     */
+    public Generation generate(int rows, int cols, int mineCount, int x, int y) {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("A minefield must have at least one row and column!");
+        }
+        if (mineCount < 0 || mineCount >= (long) rows * cols) {
+            throw new IllegalArgumentException(String.format(
+                    "Cannot place %d mines in a minefield of %d cells!",
+                    mineCount, (long) rows * cols
+            ));
+        }
+        if (x < 0 || y < 0 || x >= rows || y >= cols) {
+            throw new ArrayIndexOutOfBoundsException(String.format(
+                    "Index [%d, %d] is out of bounds for minefield of size %dx%d!",
+                    x, y, rows, cols
+            ));
+        }
+
+        if ((long) rows * cols > MAX_CELL_COUNT) {
+            Minefield minefield = Minefield.lazy(rows, cols, mineCount);
+            minefield.placeMines(x, y, true);
+            return new Generation(minefield, false);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+        int searchCount = searchCount(rows * cols);
+        List<Callable<Long>> searches = new ArrayList<>(searchCount);
+        for (int i = 0; i < searchCount; i++) {
+            searches.add(() -> search(rows, cols, mineCount, x, y, deadline));
+        }
+        long seed;
+        boolean guessFree = false;
+        try {
+            seed = workers.invokeAny(searches, timeBudgetMillis, TimeUnit.MILLISECONDS);
+            guessFree = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            seed = ThreadLocalRandom.current().nextLong();
+        } catch (ExecutionException | TimeoutException e) {
+            // No board was found in time:
+            seed = ThreadLocalRandom.current().nextLong();
+        }
+        Minefield minefield = Minefield.lazy(rows, cols, mineCount, seed);
+        minefield.placeMines(x, y, true);
+        return new Generation(minefield, guessFree);
+    }
+
+    /**
+     * Returns the number of workers searching a board of the given size:
+     * every worker, unless their boards and solvers would take more than
+     * a quarter of the maximum heap, but at least one.
+     *
+     * @param cellCount the {@code int} number of cells in the board
+     * @return the {@code int} number of searches to run in parallel
+     */
+    private int searchCount(int cellCount) {
+        long affordable = Runtime.getRuntime().maxMemory() / 4 / ((long) cellCount * BYTES_PER_CELL);
+        return (int) Math.max(1, Math.min(threadCount, affordable));
+    }
+
+    /**
+     * Tries random seeds until one of them yields a board solvable
+     * without guessing. The board and the solver are allocated once,
+     * and reset for every seed.
+     *
+     * @return the seed of the board found
+     * @throws TimeoutException     if the deadline has passed
+     * @throws InterruptedException if another search has found a board
+     */
+    private static long search(int rows, int cols, int mineCount, int x, int y, long deadline)
+            throws TimeoutException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Minefield minefield = Minefield.lazy(rows, cols, mineCount);
+        Solver solver = null;
+        while (System.nanoTime() - deadline < 0) {
+            if (Thread.interrupted()) throw new InterruptedException();
+            long seed = random.nextLong();
+            minefield.reset(seed);
+            GameEngine engine = new GameEngine(minefield);
+            if (solver == null) solver = new Solver(engine);
+            else solver.reset(engine);
+            if (isSolvable(engine, solver, x, y)) return seed;
+        }
+        throw new TimeoutException();
+    }
+
+    /**
+     * Checks whether the board generated from the given seed and first
+     * revealed cell can be won by the {@link Solver} without guessing.
+     *
+     * @param rows      the {@code int} number of rows in the board
+     * @param cols      the {@code int} number of columns in the board
+     * @param mineCount the {@code int} number of mines in the board
+     * @param seed      the {@code long} seed of the board
+     * @param x         horizontal position of the first revealed cell.
+     * @param y         vertical position of the first revealed cell.
+     * @return true, if the board is solvable without guessing, false
+     *         otherwise
+     */
+    static boolean isSolvable(int rows, int cols, int mineCount, long seed, int x, int y) {
+        GameEngine engine = new GameEngine(Minefield.lazy(rows, cols, mineCount, seed));
+        return isSolvable(engine, new Solver(engine), x, y);
+    }
+
+    /**
+     * Plays a new game from the given cell with the {@link Solver},
+     * checking whether it can be won without guessing.
+     *
+     * @param engine the {@link GameEngine} of a game with no cells
+     *               revealed
+     * @param solver a {@link Solver} of the game, without any updates
+     * @param x      horizontal position of the first revealed cell.
+     * @param y      vertical position of the first revealed cell.
+     * @return true, if the board is solvable without guessing, false
+     *         otherwise
+     */
+    private static boolean isSolvable(GameEngine engine, Solver solver, int x, int y) {
+        int cols = engine.getCols();
+        solver.update(engine.reveal(x, y));
+        while (engine.getStatus() == GameEngine.Status.PLAYING) {
+            int move = solver.nextSafeMove();
+            if (move < 0) return false;
+            solver.update(engine.reveal(move / cols, move % cols));
+        }
+        return engine.getStatus() == GameEngine.Status.WON;
+    }
+}
@@ -0,0 +1,821 @@
+package hu.aestallon.minesweeper.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the probability of every hidden cell of a game hiding a mine,
+ * given the revealed cells and the total number of mines, assuming every
+ * consistent placement of the mines to be equally likely.
+ *
+ * <p>The hidden cells next to revealed cells (the frontier) are split
+ * into independent components: two cells belong to the same component if
+ * they are constrained by the same revealed cell, directly or
+ * transitively. The cells of a component constrained by the same
+ * revealed cells are interchangeable, thus they are enumerated as a
+ * single group, by the number of mines among them. Every component is
+ * enumerated by backtracking, counting its consistent placements by
+ * their number of mines. The rest of the hidden cells (the interior) are
+ * unconstrained: a placement of {@code s} mines in the frontier leaves
+ * {@code C(interior, mines - s)} placements in the interior. The
+ * components are combined with these weights by convolution, in a
+ * divide and conquer manner, thus the distribution of the mines outside
+ * a component is never recomputed from scratch for every component.
+ *
+ * <p>The frontier is updated incrementally with the cells changed by
+ * every move (see {@link #update(int[])}), and the number of hidden
+ * cells is taken from the engine, thus a computation never scans the
+ * board, and its cost depends on the size of the frontier. The result
+ * is sparse as well: a {@link Probabilities} instance holds the
+ * probabilities of the frontier cells, and a single probability shared
+ * by every interior cell.
+ *
+ * <p>A component is only enumerated again if it changed since the
+ * previous computation, otherwise its result is taken from a cache. The
+ * components to enumerate are enumerated in parallel, on the common
+ * {@link java.util.concurrent.ForkJoinPool}, but only this step runs
+ * off the calling thread: the engine is only accessed by the calling
+ * thread.
+ *
+ * <p>A component whose enumeration exceeds {@link #ENUMERATION_BUDGET}
+ * steps is approximated instead, by giving its cells the average mine
+ * density of the revealed cells around them. Such components are rare
+ * on regular boards, but common on huge ones with long frontiers.
+ *
+ * <p>Flags are ignored, as they may be misplaced. Instances are not
+ * thread-safe.
+ *
+ * @see Solver
+ */
+public class ProbabilityEngine {
+
+    /** The maximum number of search steps of a single enumeration. */
+    static final int ENUMERATION_BUDGET = 1 << 22;
+    /** The binomial coefficients {@code C(n, k)} of at most 8 cells. */
+    private static final double[][] BINOMIALS = new double[9][];
+
+    static {
+        for (int n = 0; n <= 8; n++) {
+            BINOMIALS[n] = new double[n + 1];
+            BINOMIALS[n][0] = BINOMIALS[n][n] = 1;
+            for (int k = 1; k < n; k++) {
+                BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + BINOMIALS[n - 1][k];
+            }
+        }
+    }
+
+    private final GameEngine engine;
+    private final int rows;
+    private final int cols;
+
+    /** The revealed, numbered cells with hidden neighbours. */
+    private final BitSet frontier = new BitSet();
+    /** Marks the cells visited by the current component search. */
+    private final int[] visitStamps;
+    private int stamp = 0;
+    /** The results of the components of the previous computation. */
+    private Map<Component, ComponentResult> cache = new HashMap<>();
+
+    /**
+     * Creates a probability engine of the given game.
+     *
+     * <p>If the game is already in progress, its frontier is collected
+     * by scanning the board once, afterwards it is kept up to date by
+     * {@link #update(int[])}.
+     *
+     * @param engine the {@link GameEngine} of the game, not null
+     */
+    public ProbabilityEngine(GameEngine engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Game engine cannot be null!");
+        }
+        this.engine = engine;
+        rows = engine.getRows();
+        cols = engine.getCols();
+        visitStamps = new int[rows * cols];
+        if (engine.getHiddenCount() < rows * cols) {
+            for (int index = 0; index < rows * cols; index++) {
+                if (isFrontier(index)) frontier.set(index);
+            }
+        }
+    }
+
+    /**
+     * Updates the frontier with the cells changed by a move. Must be
+     * called after every move made since the creation of the instance.
+     *
+     * @param changed the indices of the cells changed by the move, as
+     *                returned by the move methods of {@link GameEngine}
+     */
+    public void update(int[] changed) {
+        for (int index : changed) {
+            int x = index / cols, y = index % cols;
+            if (!engine.isRevealed(x, y)) continue;
+            if (isFrontier(index)) frontier.set(index);
+            for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, rows - 1); i++) {
+                for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, cols - 1); j++) {
+                    int neighbour = i * cols + j;
+                    if (neighbour != index && frontier.get(neighbour) && !isFrontier(neighbour)) {
+                        frontier.clear(neighbour);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the probability of every hidden cell hiding a mine.
+     *
+     * @return the {@link Probabilities} of the hidden cells
+     */
+    public Probabilities computeProbabilities() {
+        List<Component> components = collectComponents();
+        int interiorCount = engine.getHiddenCount();
+        for (Component component : components) {
+            interiorCount -= component.cells.length;
+        }
+
+        Map<Component, ComponentResult> results = new HashMap<>();
+        List<Component> misses = new ArrayList<>();
+        for (Component component : components) {
+            ComponentResult result = cache.get(component);
+            if (result == null) misses.add(component);
+            else results.put(component, result);
+        }
+        List<ComponentResult> computed = (misses.size() > 1)
+                ? misses.parallelStream().map(Component::enumerate).toList()
+                : misses.stream().map(Component::enumerate).toList();
+        for (int i = 0; i < misses.size(); i++) {
+            results.put(misses.get(i), computed.get(i));
+        }
+        cache = results;
+
+        ComponentResult[] ordered = new ComponentResult[components.size()];
+        for (int c = 0; c < ordered.length; c++) {
+            ordered[c] = results.get(components.get(c));
+        }
+        Combination combination = new Combination(ordered, interiorCount, engine.getMineCount());
+        double interiorProbability = combination.run();
+
+        // The cells are sorted by their index, along with their
+        // positions among the concatenated probabilities of the
+        // components, thus the probability of a cell can be looked up
+        // by binary search:
+        int frontierCount = 0;
+        for (Component component : components) frontierCount += component.cells.length;
+        double[] concatenated = new double[frontierCount];
+        long[] keys = new long[frontierCount];
+        int position = 0;
+        for (int c = 0; c < ordered.length; c++) {
+            int[] cells = components.get(c).cells;
+            for (int p = 0; p < cells.length; p++, position++) {
+                concatenated[position] = combination.componentProbabilities[c][p];
+                keys[position] = (long) cells[p] << 32 | position;
+            }
+        }
+        Arrays.sort(keys);
+        int[] cells = new int[frontierCount];
+        double[] probabilities = new double[frontierCount];
+        for (int i = 0; i < frontierCount; i++) {
+            cells[i] = (int) (keys[i] >>> 32);
+            probabilities[i] = concatenated[(int) keys[i]];
+        }
+        return new Probabilities(cells, probabilities, interiorProbability);
+    }
+
+    /**
+     * Chooses the hidden, unflagged cell least likely to hide a mine.
+     *
+     * <p>If an interior cell is the least likely, the first hidden,
+     * unflagged interior cell is chosen, which may take a scan of the
+     * board.
+     *
+     * @param probabilities the probabilities, as returned by
+     *                      {@link #computeProbabilities()}
+     * @return the flat index of the cell, or {@code -1} if every hidden
+     *         cell is flagged
+     */
+    public int bestGuess(Probabilities probabilities) {
+        int best = -1;
+        double bestProbability = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < probabilities.cells.length; i++) {
+            int cell = probabilities.cells[i];
+            if (engine.isFlagged(cell / cols, cell % cols)) continue;
+            if (probabilities.values[i] < bestProbability) {
+                best = cell;
+                bestProbability = probabilities.values[i];
+            }
+        }
+        if (probabilities.interior >= bestProbability) return best;
+        for (int i = 0; i < rows * cols; i++) {
+            int x = i / cols, y = i % cols;
+            if (engine.isRevealed(x, y) || engine.isFlagged(x, y)) continue;
+            if (Arrays.binarySearch(probabilities.cells, i) < 0) return i;
+        }
+        return best;
+    }
+
+    /**
+     * Chooses the hidden, unflagged cell least likely to hide a mine.
+     *
+     * @return the flat index of the cell, or {@code -1} if every hidden
+     *         cell is flagged
+     */
+    public int bestGuess() {
+        return bestGuess(computeProbabilities());
+    }
+
+    /**
+     * The mine probabilities of the hidden cells of a game, as computed
+     * by {@link #computeProbabilities()}: the probability of every
+     * frontier cell, and the probability shared by the interior cells.
+     * Instances are immutable.
+     */
+    public static final class Probabilities {
+
+        /** The flat indices of the frontier cells, in ascending order. */
+        private final int[] cells;
+        /** The probability of every frontier cell. */
+        private final double[] values;
+        private final double interior;
+
+        private Probabilities(int[] cells, double[] values, double interior) {
+            this.cells = cells;
+            this.values = values;
+            this.interior = interior;
+        }
+
+        /**
+         * Returns the probability of the given hidden cell hiding a
+         * mine. Revealed cells are not told apart from the interior,
+         * thus they should not be queried.
+         *
+         * @param index the flat index ({@code x * cols + y}) of a hidden
+         *              cell
+         * @return the probability of the cell hiding a mine
+         */
+        public double of(int index) {
+            int position = Arrays.binarySearch(cells, index);
+            return (position >= 0) ? values[position] : interior;
+        }
+
+        /**
+         * Returns the probability of a hidden cell without revealed
+         * neighbours hiding a mine.
+         *
+         * @return the probability of an interior cell hiding a mine
+         */
+        public double getInteriorProbability() {
+            return interior;
+        }
+
+        /**
+         * Returns the number of hidden cells next to revealed cells.
+         *
+         * @return the {@code int} number of frontier cells
+         */
+        public int getFrontierSize() {
+            return cells.length;
+        }
+    }
+
+    // -------------------------------------------------------------------
+    // Collecting the components
+    // -------------------------------------------------------------------
+
+    /** Checks whether a cell is revealed and bears a number. */
+    private boolean isConstraint(int index) {
+        int x = index / cols, y = index % cols;
+        return engine.isRevealed(x, y) && engine.getCell(x, y) != Minefield.MINE;
+    }
+
+    /** Checks whether a cell is revealed, bears a number and has hidden neighbours. */
+    private boolean isFrontier(int index) {
+        if (!isConstraint(index)) return false;
+        int x = index / cols, y = index % cols;
+        for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, rows - 1); i++) {
+            for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, cols - 1); j++) {
+                if (!engine.isRevealed(i, j)) return true;
+            }
+        }
+        return false;
+    }
+
+    private int hiddenNeighbours(int index, int[] out) {
+        int x = index / cols, y = index % cols;
+        int count = 0;
+        for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, rows - 1); i++) {
+            for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, cols - 1); j++) {
+                if (!engine.isRevealed(i, j)) out[count++] = i * cols + j;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Collects the revealed neighbours of a hidden cell, all of which
+     * belong to the frontier.
+     */
+    private int constraintNeighbours(int index, int[] out) {
+        int x = index / cols, y = index % cols;
+        int count = 0;
+        for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, rows - 1); i++) {
+            for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, cols - 1); j++) {
+                int neighbour = i * cols + j;
+                if (frontier.get(neighbour)) out[count++] = neighbour;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Collects the frontier components of the board, by a breadth-first
+     * search from every frontier cell, in ascending order.
+     */
+    private List<Component> collectComponents() {
+        stamp++;
+        int[] neighbours = new int[8];
+        int[] around = new int[8];
+        List<Component> components = new ArrayList<>();
+        List<Integer> constraints = new ArrayList<>();
+        List<Integer> cells = new ArrayList<>();
+        for (int start = frontier.nextSetBit(0); start >= 0; start = frontier.nextSetBit(start + 1)) {
+            if (visitStamps[start] == stamp) continue;
+            visitStamps[start] = stamp;
+            constraints.clear();
+            cells.clear();
+            constraints.add(start);
+            for (int c = 0; c < constraints.size(); c++) {
+                int count = hiddenNeighbours(constraints.get(c), neighbours);
+                for (int n = 0; n < count; n++) {
+                    int cell = neighbours[n];
+                    if (visitStamps[cell] == stamp) continue;
+                    visitStamps[cell] = stamp;
+                    cells.add(cell);
+                    int aroundCount = constraintNeighbours(cell, around);
+                    for (int a = 0; a < aroundCount; a++) {
+                        if (visitStamps[around[a]] != stamp) {
+                            visitStamps[around[a]] = stamp;
+                            constraints.add(around[a]);
+                        }
+                    }
+                }
+            }
+            components.add(createComponent(constraints, cells));
+        }
+        return components;
+    }
+
+    /**
+     * Creates a component from its constraints and cells, grouping the
+     * cells constrained by the same constraints.
+     *
+     * @param constraints the revealed cells of the component, in the
+     *                    order of their discovery
+     * @param cells       the hidden cells of the component, in the order
+     *                    of their discovery
+     */
+    private Component createComponent(List<Integer> constraints, List<Integer> cells) {
+        int[] sortedConstraints = constraints.stream().mapToInt(Integer::intValue).sorted().toArray();
+        int[] sortedCells = cells.stream().mapToInt(Integer::intValue).sorted().toArray();
+        int[] values = new int[sortedConstraints.length];
+        for (int c = 0; c < values.length; c++) {
+            int constraint = sortedConstraints[c];
+            values[c] = engine.getCell(constraint / cols, constraint % cols) - '0';
+        }
+
+        // Groups are numbered in the order of discovery, thus constraints
+        // are closed early during the enumeration:
+        Map<List<Integer>, Integer> groupsByConstraints = new HashMap<>();
+        List<int[]> groupConstraints = new ArrayList<>();
+        List<Integer> groupSizes = new ArrayList<>();
+        int[] cellGroups = new int[sortedCells.length];
+        int[] around = new int[8];
+        for (int cell : cells) {
+            int count = constraintNeighbours(cell, around);
+            int[] local = new int[count];
+            for (int a = 0; a < count; a++) {
+                local[a] = Arrays.binarySearch(sortedConstraints, around[a]);
+            }
+            List<Integer> key = Arrays.stream(local).boxed().toList();
+            Integer group = groupsByConstraints.get(key);
+            if (group == null) {
+                group = groupConstraints.size();
+                groupsByConstraints.put(key, group);
+                groupConstraints.add(local);
+                groupSizes.add(0);
+            }
+            groupSizes.set(group, groupSizes.get(group) + 1);
+            cellGroups[Arrays.binarySearch(sortedCells, cell)] = group;
+        }
+        return new Component(
+                sortedCells,
+                sortedConstraints,
+                values,
+                cellGroups,
+                groupSizes.stream().mapToInt(Integer::intValue).toArray(),
+                groupConstraints.toArray(new int[0][])
+        );
+    }
+
+    // -------------------------------------------------------------------
+    // Enumerating the components
+    // -------------------------------------------------------------------
+
+    /**
+     * A frontier component: its hidden cells, and the revealed cells
+     * constraining them, grouped for the enumeration. Two components are
+     * equal if they have the same cells and constraints, in which case
+     * the rest of their fields are equal as well, as the numbers of
+     * revealed cells never change.
+     */
+    private static final class Component {
+
+        /** The flat indices of the hidden cells, in ascending order. */
+        final int[] cells;
+        /** The flat indices of the revealed cells, in ascending order. */
+        final int[] constraints;
+        /** The number of every revealed cell. */
+        final int[] values;
+        /** The group of every cell. */
+        final int[] cellGroups;
+        /** The number of cells in every group. */
+        final int[] groupSizes;
+        /** The positions of the constraints of every group. */
+        final int[][] groupConstraints;
+        private final int hash;
+
+        Component(int[] cells, int[] constraints, int[] values,
+                  int[] cellGroups, int[] groupSizes, int[][] groupConstraints) {
+            this.cells = cells;
+            this.constraints = constraints;
+            this.values = values;
+            this.cellGroups = cellGroups;
+            this.groupSizes = groupSizes;
+            this.groupConstraints = groupConstraints;
+            hash = 31 * Arrays.hashCode(cells) + Arrays.hashCode(constraints);
+        }
+
+        /**
+         * Enumerates the consistent placements of mines in the
+         * component, or approximates them if there are too many.
+         *
+         * @return the {@link ComponentResult} of the component
+         */
+        ComponentResult enumerate() {
+            GroupEnumeration enumeration = new GroupEnumeration(this);
+            ComponentResult result = enumeration.run();
+            return (result != null) ? result : approximate();
+        }
+
+        /**
+         * Gives every cell the average mine density of its constraints,
+         * and the component the total of these as its only mine count.
+         */
+        private ComponentResult approximate() {
+            int[] hiddenCounts = new int[constraints.length];
+            for (int g = 0; g < groupSizes.length; g++) {
+                for (int c : groupConstraints[g]) hiddenCounts[c] += groupSizes[g];
+            }
+            double[] probabilities = new double[cells.length];
+            double expected = 0;
+            for (int p = 0; p < cells.length; p++) {
+                int[] around = groupConstraints[cellGroups[p]];
+                double sum = 0;
+                for (int c : around) sum += (double) values[c] / hiddenCounts[c];
+                probabilities[p] = Math.min(1, sum / around.length);
+                expected += probabilities[p];
+            }
+            int mines = (int) Math.round(expected);
+            return new ComponentResult(mines, new double[]{1}, new double[][]{probabilities});
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Component other)) return false;
+            return hash == other.hash
+                    && Arrays.equals(cells, other.cells)
+                    && Arrays.equals(constraints, other.constraints);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * The placements of mines in a component, by their number of mines.
+     *
+     * <p>{@code weights[k]} is proportional to the number of placements
+     * of {@code minMines + k} mines, and {@code cellProbabilities[k][p]}
+     * is the probability of the cell at position {@code p} hiding a mine
+     * among these placements.
+     */
+    private static final class ComponentResult {
+
+        final int minMines;
+        final double[] weights;
+        final double[][] cellProbabilities;
+
+        ComponentResult(int minMines, double[] weights, double[][] cellProbabilities) {
+            this.minMines = minMines;
+            this.weights = weights;
+            this.cellProbabilities = cellProbabilities;
+        }
+    }
+
+    /**
+     * Enumerates the placements of mines in a component by backtracking,
+     * assigning a number of mines to a group at every step. A group of
+     * {@code n} cells with {@code k} mines stands for {@code C(n, k)}
+     * placements.
+     */
+    private static final class GroupEnumeration {
+
+        private final Component component;
+        private final int groupCount;
+        /** The number of mines placed among the cells of every constraint. */
+        private final int[] placed;
+        /** The number of cells of every constraint not assigned yet. */
+        private final int[] open;
+        /** The number of mines assigned to every group. */
+        private final int[] assignment;
+        /** The placements found, by their number of mines. */
+        private final double[] weights;
+        /** The weighted number of mines of every group, by the number of mines. */
+        private final double[][] groupMines;
+        private long budget = ENUMERATION_BUDGET;
+
+        GroupEnumeration(Component component) {
+            this.component = component;
+            groupCount = component.groupSizes.length;
+            placed = new int[component.constraints.length];
+            open = new int[component.constraints.length];
+            for (int g = 0; g < groupCount; g++) {
+                for (int c : component.groupConstraints[g]) open[c] += component.groupSizes[g];
+            }
+            assignment = new int[groupCount];
+            weights = new double[component.cells.length + 1];
+            groupMines = new double[component.cells.length + 1][];
+        }
+
+        /**
+         * Runs the enumeration.
+         *
+         * @return the {@link ComponentResult} of the component, or null if
+         *         the enumeration was abandoned
+         */
+        ComponentResult run() {
+            search(0, 0, 1);
+            if (budget < 0) return null;
+
+            int min = 0, max = weights.length - 1;
+            while (min <= max && weights[min] == 0) min++;
+            while (max >= min && weights[max] == 0) max--;
+            if (min > max) return null;
+
+            double largest = 0;
+            for (int k = min; k <= max; k++) largest = Math.max(largest, weights[k]);
+            if (Double.isInfinite(largest)) return null;
+
+            double[] normalized = new double[max - min + 1];
+            double[][] cellProbabilities = new double[max - min + 1][];
+            int[] cellGroups = component.cellGroups;
+            for (int k = min; k <= max; k++) {
+                normalized[k - min] = weights[k] / largest;
+                if (weights[k] == 0) continue;
+                double[] probabilities = new double[cellGroups.length];
+                for (int p = 0; p < cellGroups.length; p++) {
+                    int g = cellGroups[p];
+                    probabilities[p] = groupMines[k][g] / (weights[k] * component.groupSizes[g]);
+                }
+                cellProbabilities[k - min] = probabilities;
+            }
+            return new ComponentResult(min, normalized, cellProbabilities);
+        }
+
+        private void search(int group, int mines, double weight) {
+            if (--budget < 0) return;
+            if (group == groupCount) {
+                budget -= groupCount;
+                weights[mines] += weight;
+                if (groupMines[mines] == null) groupMines[mines] = new double[groupCount];
+                double[] accumulated = groupMines[mines];
+                for (int g = 0; g < groupCount; g++) accumulated[g] += weight * assignment[g];
+                return;
+            }
+            int size = component.groupSizes[group];
+            int[] constraints = component.groupConstraints[group];
+            int low = 0, high = size;
+            for (int c : constraints) {
+                int missing = component.values[c] - placed[c];
+                high = Math.min(high, missing);
+                low = Math.max(low, missing - (open[c] - size));
+            }
+            if (low > high) return;
+
+            for (int c : constraints) open[c] -= size;
+            for (int k = low; k <= high; k++) {
+                for (int c : constraints) placed[c] += k;
+                assignment[group] = k;
+                search(group + 1, mines + k, weight * BINOMIALS[size][k]);
+                for (int c : constraints) placed[c] -= k;
+            }
+            for (int c : constraints) open[c] += size;
+        }
+    }
+
+    // -------------------------------------------------------------------
+    // Combining the components
+    // -------------------------------------------------------------------
+
+    /**
+     * Combines the results of the components, weighting every total
+     * number of mines in the frontier by the number of placements of the
+     * rest of the mines in the interior.
+     *
+     * <p>The components are the leaves of a balanced binary tree, every
+     * node of which holds the distribution of the mines among its leaves
+     * (the convolution of its children). Descending from the root, every
+     * node receives the weight of each number of mines among its leaves,
+     * given everything outside them, thus the final weights of the
+     * components are computed in {@code O(w * w * log n)} time, where
+     * {@code w} is the number of possible mine counts of the frontier.
+     * Every distribution is scaled to a maximum of 1, as only their
+     * ratios matter.
+     */
+    private final class Combination {
+
+        private final ComponentResult[] results;
+        private final int interiorCount;
+        private final int mineCount;
+        /** The lowest number of mines of every node's leaves. */
+        private final int[] lows;
+        /** The distribution of the number of mines of every node's leaves. */
+        private final double[][] distributions;
+        /** The final probabilities of the cells of every component. */
+        final double[][] componentProbabilities;
+
+        Combination(ComponentResult[] results, int interiorCount, int mineCount) {
+            this.results = results;
+            this.interiorCount = interiorCount;
+            this.mineCount = mineCount;
+            int nodeCount = 4 * Math.max(results.length, 1);
+            lows = new int[nodeCount];
+            distributions = new double[nodeCount][];
+            componentProbabilities = new double[results.length][];
+        }
+
+        /**
+         * Computes the final probabilities of the cells of every
+         * component.
+         *
+         * @return the probability of an interior cell hiding a mine
+         */
+        double run() {
+            if (results.length == 0) {
+                return (interiorCount == 0) ? 0 : Math.min(1, (double) mineCount / interiorCount);
+            }
+            build(1, 0, results.length);
+
+            // The weight of every number of mines in the frontier is the
+            // number of placements of the rest in the interior. Only their
+            // ratios matter, thus their logarithms are taken relative to
+            // the first one, using C(n, r - 1) / C(n, r) = r / (n - r + 1):
+            int low = lows[1];
+            double[] interiorWeights = new double[distributions[1].length];
+            double largest = Double.NEGATIVE_INFINITY;
+            double[] logWeights = new double[interiorWeights.length];
+            double logWeight = Double.NaN;
+            for (int t = 0; t < logWeights.length; t++) {
+                int rest = mineCount - (low + t);
+                if (rest < 0 || rest > interiorCount) {
+                    logWeights[t] = Double.NEGATIVE_INFINITY;
+                    continue;
+                }
+                // The valid numbers of mines are consecutive:
+                logWeight = Double.isNaN(logWeight)
+                        ? 0
+                        : logWeight + Math.log(rest + 1) - Math.log(interiorCount - rest);
+                logWeights[t] = logWeight;
+                largest = Math.max(largest, logWeight);
+            }
+            if (largest == Double.NEGATIVE_INFINITY) {
+                // The mine count contradicts the board, the total is ignored:
+                Arrays.fill(interiorWeights, 1);
+            } else {
+                for (int t = 0; t < logWeights.length; t++) {
+                    interiorWeights[t] = Math.exp(logWeights[t] - largest);
+                }
+            }
+            distribute(1, 0, results.length, interiorWeights);
+
+            if (interiorCount == 0) return 0;
+            double total = 0, interiorMines = 0;
+            for (int t = 0; t < interiorWeights.length; t++) {
+                double weight = distributions[1][t] * interiorWeights[t];
+                total += weight;
+                interiorMines += weight * (mineCount - (low + t));
+            }
+            if (total == 0) return 0;
+            return Math.max(0, Math.min(1, interiorMines / total / interiorCount));
+        }
+
+        /** Computes the distribution of every node, bottom-up. */
+        private void build(int node, int from, int to) {
+            if (to - from == 1) {
+                lows[node] = results[from].minMines;
+                distributions[node] = results[from].weights;
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            build(2 * node, from, middle);
+            build(2 * node + 1, middle, to);
+            double[] left = distributions[2 * node], right = distributions[2 * node + 1];
+            double[] convolution = new double[left.length + right.length - 1];
+            for (int i = 0; i < left.length; i++) {
+                if (left[i] == 0) continue;
+                for (int j = 0; j < right.length; j++) {
+                    convolution[i + j] += left[i] * right[j];
+                }
+            }
+            lows[node] = lows[2 * node] + lows[2 * node + 1];
+            distributions[node] = scale(convolution);
+        }
+
+        /**
+         * Hands the weight of every number of mines down to the leaves.
+         *
+         * @param outside the weight of every number of mines among the
+         *                leaves of the node, given the rest of the board
+         */
+        private void distribute(int node, int from, int to, double[] outside) {
+            if (to - from == 1) {
+                componentProbabilities[from] = conclude(results[from], outside);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            distribute(2 * node, from, middle, outsideOfChild(node, 2 * node + 1, 2 * node, outside));
+            distribute(2 * node + 1, middle, to, outsideOfChild(node, 2 * node, 2 * node + 1, outside));
+        }
+
+        /**
+         * Computes the outside weights of a child, from the outside
+         * weights of its parent and the distribution of its sibling.
+         */
+        private double[] outsideOfChild(int parent, int sibling, int child, double[] outside) {
+            double[] siblingDistribution = distributions[sibling];
+            double[] result = new double[distributions[child].length];
+            // The offset of the parent's range from the child's range:
+            int offset = lows[child] + lows[sibling] - lows[parent];
+            for (int t = 0; t < result.length; t++) {
+                double sum = 0;
+                for (int s = 0; s < siblingDistribution.length; s++) {
+                    sum += siblingDistribution[s] * outside[t + s + offset];
+                }
+                result[t] = sum;
+            }
+            return scale(result);
+        }
+
+        private double[] conclude(ComponentResult result, double[] outside) {
+            double[] weights = result.weights;
+            double[] posterior = new double[weights.length];
+            double total = 0;
+            for (int k = 0; k < weights.length; k++) {
+                posterior[k] = weights[k] * outside[k];
+                total += posterior[k];
+            }
+            if (total == 0) {
+                // The mine count contradicts the board, the total is ignored:
+                posterior = weights;
+                for (double weight : weights) total += weight;
+            }
+            // The lowest number of mines always has placements:
+            int cellCount = result.cellProbabilities[0].length;
+            double[] probabilities = new double[cellCount];
+            for (int k = 0; k < weights.length; k++) {
+                if (posterior[k] == 0) continue;
+                double share = posterior[k] / total;
+                double[] given = result.cellProbabilities[k];
+                for (int p = 0; p < cellCount; p++) probabilities[p] += share * given[p];
+            }
+            return probabilities;
+        }
+    }
+
+    private static double[] scale(double[] values) {
+        double largest = 0;
+        for (double value : values) largest = Math.max(largest, value);
+        if (largest > 0 && !Double.isInfinite(largest)) {
+            for (int i = 0; i < values.length; i++) values[i] /= largest;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,93 @@
+package hu.aestallon.minesweeper.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * Reveals a uniformly chosen hidden cell on every move.
+ *
+ * <p>The hidden cells are kept in an array, from which the cells
+ * revealed by a move are removed in constant time each, by swapping
+ * them with the last hidden cell. Thus, choosing a move never requires
+ * scanning the board.
+ */
+public class RandomStrategy implements Strategy {
+
+    private final SplittableRandom random;
+
+    /** The indices of the hidden cells in their first {@code hiddenCount} elements. */
+    private int[] hidden;
+    /** The position of every cell in {@link #hidden}. */
+    private int[] positions;
+    private int hiddenCount;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param seed the {@code long} seed of the random choices
+     */
+    public RandomStrategy(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int nextMove(GameEngine engine, int[] changed) {
+        update(engine, changed);
+        return choose();
+    }
+
+    /**
+     * Removes the cells changed by the previous move from the choices.
+     *
+     * @param engine  the {@link GameEngine} of the game being played
+     * @param changed the indices of the cells changed by the previous
+     *                move
+     */
+    void update(GameEngine engine, int[] changed) {
+        if (hidden == null) {
+            int cellCount = engine.getRows() * engine.getCols();
+            hidden = new int[cellCount];
+            positions = new int[cellCount];
+            for (int i = 0; i < cellCount; i++) {
+                hidden[i] = i;
+                positions[i] = i;
+            }
+            hiddenCount = cellCount;
+        }
+        for (int index : changed) {
+            remove(index);
+        }
+    }
+
+    /**
+     * Chooses a uniformly random cell from the remaining choices.
+     *
+     * @return the index of the chosen cell
+     * @throws IllegalStateException if there are no choices left
+     */
+    int choose() {
+        if (hiddenCount == 0) {
+            throw new IllegalStateException("There are no hidden cells left!");
+        }
+        return hidden[random.nextInt(hiddenCount)];
+    }
+
+    /**
+     * Removes a cell from the choices, e.g. because it is known to be a
+     * mine.
+     *
+     * @param index the index of the cell
+     */
+    void exclude(int index) {
+        remove(index);
+    }
+
+    private void remove(int index) {
+        int position = positions[index];
+        if (position >= hiddenCount) return;
+        int last = hidden[--hiddenCount];
+        hidden[position] = last;
+        positions[last] = position;
+        hidden[hiddenCount] = index;
+        positions[index] = hiddenCount;
+    }
+}
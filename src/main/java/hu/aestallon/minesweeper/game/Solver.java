@@ -0,0 +1,672 @@
+package hu.aestallon.minesweeper.game;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Deduces the safe cells and the mines of a game from its revealed cells,
+ * without ever guessing.
+ *
+ * <p>The solver keeps track of the frontier: the revealed cells with
+ * unknown neighbours (hidden cells not deduced yet), along with the
+ * number of mines still missing around each of them. It is updated
+ * incrementally with the cells changed by every move (see
+ * {@link #update(int[])}), thus its cost depends on the size of the
+ * frontier, not of the board. Deductions are made in three increasingly
+ * expensive steps, each attempted only once the previous ones are
+ * exhausted:
+ * <ol>
+ * <li>single-point rules: if a cell misses no more mines, its unknown
+ *     neighbours are safe, and if it misses as many as it has unknown
+ *     neighbours, they are all mines,</li>
+ * <li>subset reasoning: if the unknown neighbours of a cell are a subset
+ *     of another cell's, the rest of the other cell's neighbours hide
+ *     the difference of the mines they miss,</li>
+ * <li>enumeration: every assignment of mines to the unknown cells of a
+ *     frontier component is enumerated by backtracking over bitmasks,
+ *     and the cells safe or mined in every consistent assignment are
+ *     deduced. Components larger than {@link #MAX_COMPONENT_CELLS} are
+ *     enumerated in local windows instead.</li>
+ * </ol>
+ * Only the components changed since their last enumeration are
+ * enumerated again. The total number of mines is not taken into
+ * account: some deductions of the endgame are missed, but every
+ * deduction is sound.
+ *
+ * <p>Instances are not thread-safe.
+ *
+ * @see SolverStrategy
+ */
+public class Solver {
+
+    /** The largest frontier component enumerated as a whole. */
+    static final int MAX_COMPONENT_CELLS = 48;
+    /** The maximum number of assignments visited by one enumeration. */
+    private static final int ENUMERATION_BUDGET = 1 << 18;
+
+    private static final byte UNKNOWN = 0;
+    private static final byte SAFE = 1;
+    private static final byte MINE = 2;
+    private static final byte REVEALED = 3;
+
+    private GameEngine engine;
+    private final int rows;
+    private final int cols;
+
+    /** The knowledge about every cell. */
+    private final byte[] states;
+    /** The number of mines missing around every revealed cell. */
+    private final byte[] remaining;
+    /** The number of unknown neighbours of every revealed cell. */
+    private final byte[] unknowns;
+
+    /** The frontier cells, in the first {@code frontierSize} elements. */
+    private final int[] frontier;
+    /** The position of every frontier cell in {@link #frontier}, or -1. */
+    private final int[] frontierPositions;
+    private int frontierSize;
+
+    /** Frontier cells to check with the single-point rules. */
+    private final IntQueue pointQueue = new IntQueue();
+    /** Frontier cells to check with subset reasoning. */
+    private final IntQueue subsetQueue = new IntQueue();
+    /** Frontier cells changed since their component was enumerated. */
+    private final IntQueue enumerationQueue = new IntQueue();
+    private final BitSet inPointQueue = new BitSet();
+    private final BitSet inSubsetQueue = new BitSet();
+    private final BitSet inEnumerationQueue = new BitSet();
+    /** Cells deduced to be safe, possibly revealed since. */
+    private final IntQueue safeQueue = new IntQueue();
+
+    /** Marks the cells visited by the current component search. */
+    private final int[] visitStamps;
+    private int stamp = 0;
+
+    /**
+     * Creates a solver of the given game.
+     *
+     * @param engine the {@link GameEngine} of the game, not null
+     */
+    public Solver(GameEngine engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Game engine cannot be null!");
+        }
+        this.engine = engine;
+        rows = engine.getRows();
+        cols = engine.getCols();
+        int cellCount = rows * cols;
+        states = new byte[cellCount];
+        remaining = new byte[cellCount];
+        unknowns = new byte[cellCount];
+        frontier = new int[cellCount];
+        frontierPositions = new int[cellCount];
+        Arrays.fill(frontierPositions, -1);
+        visitStamps = new int[cellCount];
+    }
+
+    /**
+     * Forgets everything known about the previous game, and starts
+     * solving a new one of the same size, reusing the arrays of the
+     * solver.
+     *
+     * @param engine the {@link GameEngine} of the new game, with no
+     *               cells revealed
+     */
+    void reset(GameEngine engine) {
+        if (engine.getRows() != rows || engine.getCols() != cols) {
+            throw new IllegalArgumentException("The new game must be of the same size!");
+        }
+        this.engine = engine;
+        Arrays.fill(states, UNKNOWN);
+        for (int i = 0; i < frontierSize; i++) frontierPositions[frontier[i]] = -1;
+        frontierSize = 0;
+        pointQueue.clear();
+        subsetQueue.clear();
+        enumerationQueue.clear();
+        inPointQueue.clear();
+        inSubsetQueue.clear();
+        inEnumerationQueue.clear();
+        safeQueue.clear();
+        // The visit stamps keep increasing, thus they need no reset.
+    }
+
+    /**
+     * Updates the knowledge of the solver with the cells changed by a
+     * move.
+     *
+     * @param changed the indices of the cells changed by the move, as
+     *                returned by the move methods of {@link GameEngine}
+     */
+    public void update(int[] changed) {
+        for (int index : changed) {
+            if (states[index] != REVEALED && engine.isRevealed(index / cols, index % cols)) {
+                markRevealed(index);
+            }
+        }
+    }
+
+    /**
+     * Returns a hidden cell which is certainly safe to reveal, deducing
+     * it from the revealed cells if necessary.
+     *
+     * @return the flat index ({@code x * cols + y}) of a safe cell, or
+     *         {@code -1} if no safe cell can be deduced
+     */
+    public int nextSafeMove() {
+        while (true) {
+            propagate();
+            while (!safeQueue.isEmpty()) {
+                int cell = safeQueue.peek();
+                if (states[cell] == SAFE) return cell;
+                safeQueue.poll();
+            }
+            if (!reasonWithSubsets() && !enumerate()) return -1;
+        }
+    }
+
+    /**
+     * Checks whether the given cell has been deduced to be a mine.
+     *
+     * @param index the flat index of the cell
+     * @return true, if the cell is certainly a mine, false otherwise
+     */
+    public boolean isKnownMine(int index) {
+        return states[index] == MINE;
+    }
+
+    /**
+     * Checks whether the given hidden cell has been deduced to be safe.
+     *
+     * @param index the flat index of the cell
+     * @return true, if the cell is hidden and certainly safe, false
+     *         otherwise
+     */
+    public boolean isKnownSafe(int index) {
+        return states[index] == SAFE;
+    }
+
+    /**
+     * Returns the number of revealed cells with unknown neighbours.
+     *
+     * @return the {@code int} size of the frontier
+     */
+    public int getFrontierSize() {
+        return frontierSize;
+    }
+
+    // -------------------------------------------------------------------
+    // Incremental bookkeeping
+    // -------------------------------------------------------------------
+
+    private void markRevealed(int index) {
+        boolean wasUnknown = states[index] == UNKNOWN;
+        states[index] = REVEALED;
+        int x = index / cols, y = index % cols;
+        int mines = 0, unknown = 0;
+        for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, rows - 1); i++) {
+            for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, cols - 1); j++) {
+                int neighbour = i * cols + j;
+                switch (states[neighbour]) {
+                    case UNKNOWN -> unknown++;
+                    case MINE -> mines++;
+                    case REVEALED -> {
+                        if (wasUnknown && neighbour != index) {
+                            unknowns[neighbour]--;
+                            touch(neighbour);
+                        }
+                    }
+                }
+            }
+        }
+        char value = engine.getCell(x, y);
+        if (value == Minefield.MINE) return;
+        remaining[index] = (byte) (value - '0' - mines);
+        unknowns[index] = (byte) unknown;
+        touch(index);
+    }
+
+    private void markSafe(int index) {
+        states[index] = SAFE;
+        safeQueue.add(index);
+        updateNeighbours(index, 0);
+    }
+
+    private void markMine(int index) {
+        states[index] = MINE;
+        updateNeighbours(index, 1);
+    }
+
+    /**
+     * Updates the revealed neighbours of a cell which became known.
+     *
+     * @param index the index of the cell
+     * @param mines {@code 1} if the cell is a mine, {@code 0} otherwise
+     */
+    private void updateNeighbours(int index, int mines) {
+        int x = index / cols, y = index % cols;
+        for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, rows - 1); i++) {
+            for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, cols - 1); j++) {
+                int neighbour = i * cols + j;
+                if (states[neighbour] == REVEALED) {
+                    unknowns[neighbour]--;
+                    remaining[neighbour] -= mines;
+                    touch(neighbour);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records that the unknown neighbours of a revealed cell changed,
+     * updating the frontier and scheduling the cell to be checked.
+     *
+     * @param index the index of the revealed cell
+     */
+    private void touch(int index) {
+        if (unknowns[index] == 0) {
+            removeFromFrontier(index);
+            return;
+        }
+        if (frontierPositions[index] < 0) {
+            frontierPositions[index] = frontierSize;
+            frontier[frontierSize++] = index;
+        }
+        enqueue(pointQueue, inPointQueue, index);
+        enqueue(subsetQueue, inSubsetQueue, index);
+        enqueue(enumerationQueue, inEnumerationQueue, index);
+    }
+
+    private void removeFromFrontier(int index) {
+        int position = frontierPositions[index];
+        if (position < 0) return;
+        int last = frontier[--frontierSize];
+        frontier[position] = last;
+        frontierPositions[last] = position;
+        frontierPositions[index] = -1;
+    }
+
+    private static void enqueue(IntQueue queue, BitSet queued, int index) {
+        if (!queued.get(index)) {
+            queued.set(index);
+            queue.add(index);
+        }
+    }
+
+    /**
+     * Collects the unknown neighbours of a cell.
+     *
+     * @param index the index of the cell
+     * @param out   the array receiving the neighbours, of at least 8
+     *              elements
+     * @return the number of unknown neighbours
+     */
+    private int unknownNeighbours(int index, int[] out) {
+        int x = index / cols, y = index % cols;
+        int count = 0;
+        for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, rows - 1); i++) {
+            for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, cols - 1); j++) {
+                int neighbour = i * cols + j;
+                if (states[neighbour] == UNKNOWN) out[count++] = neighbour;
+            }
+        }
+        return count;
+    }
+
+    private void markAll(int[] cells, int count, byte state) {
+        for (int i = 0; i < count; i++) {
+            if (states[cells[i]] != UNKNOWN) continue;
+            if (state == SAFE) markSafe(cells[i]);
+            else markMine(cells[i]);
+        }
+    }
+
+    // -------------------------------------------------------------------
+    // Deductions
+    // -------------------------------------------------------------------
+
+    /** Applies the single-point rules until they yield nothing new. */
+    private void propagate() {
+        int[] neighbours = new int[8];
+        while (!pointQueue.isEmpty()) {
+            int index = pointQueue.poll();
+            inPointQueue.clear(index);
+            if (unknowns[index] == 0) continue;
+            if (remaining[index] == 0) {
+                markAll(neighbours, unknownNeighbours(index, neighbours), SAFE);
+            } else if (remaining[index] == unknowns[index]) {
+                markAll(neighbours, unknownNeighbours(index, neighbours), MINE);
+            }
+        }
+    }
+
+    /**
+     * Compares the scheduled frontier cells with the frontier cells
+     * around them, until a deduction is made.
+     *
+     * @return true, if anything was deduced, false otherwise
+     */
+    private boolean reasonWithSubsets() {
+        int[] first = new int[8], second = new int[8];
+        while (!subsetQueue.isEmpty()) {
+            int index = subsetQueue.poll();
+            inSubsetQueue.clear(index);
+            if (unknowns[index] == 0) continue;
+            int firstCount = unknownNeighbours(index, first);
+            int x = index / cols, y = index % cols;
+            for (int i = Math.max(x - 2, 0); i <= Math.min(x + 2, rows - 1); i++) {
+                for (int j = Math.max(y - 2, 0); j <= Math.min(y + 2, cols - 1); j++) {
+                    int other = i * cols + j;
+                    if (other == index || states[other] != REVEALED || unknowns[other] == 0) continue;
+                    int secondCount = unknownNeighbours(other, second);
+                    if (reasonWithSubset(first, firstCount, remaining[index], second, secondCount, remaining[other])
+                            || reasonWithSubset(second, secondCount, remaining[other], first, firstCount, remaining[index])) {
+                        // The cell may have further pairs to check:
+                        enqueue(subsetQueue, inSubsetQueue, index);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Makes a deduction if the cells of a constraint are a proper subset
+     * of the cells of another.
+     *
+     * @return true, if anything was deduced, false otherwise
+     */
+    private boolean reasonWithSubset(int[] subset, int subsetCount, int subsetMines,
+                                     int[] superset, int supersetCount, int supersetMines) {
+        if (subsetCount >= supersetCount) return false;
+        int[] difference = new int[supersetCount];
+        int differenceCount = 0;
+        int common = 0;
+        for (int i = 0; i < supersetCount; i++) {
+            boolean contained = false;
+            for (int j = 0; j < subsetCount; j++) {
+                if (superset[i] == subset[j]) {
+                    contained = true;
+                    break;
+                }
+            }
+            if (contained) common++;
+            else difference[differenceCount++] = superset[i];
+        }
+        if (common != subsetCount) return false;
+        int mines = supersetMines - subsetMines;
+        if (mines == 0) {
+            markAll(difference, differenceCount, SAFE);
+            return true;
+        }
+        if (mines == differenceCount) {
+            markAll(difference, differenceCount, MINE);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Enumerates the frontier components changed since their last
+     * enumeration.
+     *
+     * @return true, if anything was deduced, false otherwise
+     */
+    private boolean enumerate() {
+        boolean progress = false;
+        IntQueue cells = new IntQueue();
+        IntQueue constraints = new IntQueue();
+        while (!enumerationQueue.isEmpty()) {
+            int index = enumerationQueue.poll();
+            // Skip the cells enumerated along with their component:
+            if (!inEnumerationQueue.get(index)) continue;
+            inEnumerationQueue.clear(index);
+            if (unknowns[index] == 0) continue;
+            cells.clear();
+            constraints.clear();
+            if (!collectComponent(index, cells, constraints)) {
+                cells.clear();
+                constraints.clear();
+                collectWindow(index, cells, constraints);
+            } else {
+                // Every cell of the component is enumerated now:
+                for (int i = 0; i < constraints.size(); i++) {
+                    inEnumerationQueue.clear(constraints.get(i));
+                }
+            }
+            progress |= enumerate(cells, constraints);
+        }
+        return progress;
+    }
+
+    /**
+     * Collects the frontier component of a frontier cell: its unknown
+     * cells, and the frontier cells constraining them.
+     *
+     * @return true, if the component has at most
+     *         {@link #MAX_COMPONENT_CELLS} unknown cells, false if the
+     *         search was abandoned
+     */
+    private boolean collectComponent(int start, IntQueue cells, IntQueue constraints) {
+        stamp++;
+        int[] neighbours = new int[8];
+        visitStamps[start] = stamp;
+        constraints.add(start);
+        for (int c = 0; c < constraints.size(); c++) {
+            int count = unknownNeighbours(constraints.get(c), neighbours);
+            for (int n = 0; n < count; n++) {
+                int cell = neighbours[n];
+                if (visitStamps[cell] == stamp) continue;
+                visitStamps[cell] = stamp;
+                if (cells.size() == MAX_COMPONENT_CELLS) return false;
+                cells.add(cell);
+                int x = cell / cols, y = cell % cols;
+                for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, rows - 1); i++) {
+                    for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, cols - 1); j++) {
+                        int constraint = i * cols + j;
+                        if (states[constraint] == REVEALED && visitStamps[constraint] != stamp) {
+                            visitStamps[constraint] = stamp;
+                            constraints.add(constraint);
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collects the frontier cells in the 5x5 window around a frontier
+     * cell, and their unknown cells. The window contains every unknown
+     * cell of its constraints, thus its enumeration is sound.
+     */
+    private void collectWindow(int center, IntQueue cells, IntQueue constraints) {
+        stamp++;
+        int[] neighbours = new int[8];
+        int x = center / cols, y = center % cols;
+        for (int i = Math.max(x - 2, 0); i <= Math.min(x + 2, rows - 1); i++) {
+            for (int j = Math.max(y - 2, 0); j <= Math.min(y + 2, cols - 1); j++) {
+                int constraint = i * cols + j;
+                if (states[constraint] != REVEALED || unknowns[constraint] == 0) continue;
+                constraints.add(constraint);
+                int count = unknownNeighbours(constraint, neighbours);
+                for (int n = 0; n < count; n++) {
+                    if (visitStamps[neighbours[n]] != stamp) {
+                        visitStamps[neighbours[n]] = stamp;
+                        cells.add(neighbours[n]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Enumerates the mine assignments of the given cells consistent with
+     * the given constraints, and marks the cells known in every one.
+     *
+     * @return true, if anything was deduced, false otherwise
+     */
+    private boolean enumerate(IntQueue cells, IntQueue constraints) {
+        int cellCount = cells.size();
+        int[] neighbours = new int[8];
+        long[] masks = new long[constraints.size()];
+        int[] mines = new int[constraints.size()];
+        int[][] constraintsOfCells = new int[cellCount][];
+        int[] constraintCounts = new int[cellCount];
+        for (int p = 0; p < cellCount; p++) constraintsOfCells[p] = new int[8];
+
+        for (int c = 0; c < constraints.size(); c++) {
+            int constraint = constraints.get(c);
+            mines[c] = remaining[constraint];
+            int count = unknownNeighbours(constraint, neighbours);
+            for (int n = 0; n < count; n++) {
+                int p = positionOf(cells, neighbours[n]);
+                masks[c] |= 1L << p;
+                constraintsOfCells[p][constraintCounts[p]++] = c;
+            }
+        }
+        for (int p = 0; p < cellCount; p++) {
+            constraintsOfCells[p] = Arrays.copyOf(constraintsOfCells[p], constraintCounts[p]);
+        }
+
+        BitmaskEnumeration enumeration = new BitmaskEnumeration(cellCount, masks, mines, constraintsOfCells);
+        if (!enumeration.run()) return false;
+
+        boolean progress = false;
+        for (int p = 0; p < cellCount; p++) {
+            long bit = 1L << p;
+            int cell = cells.get(p);
+            if (states[cell] != UNKNOWN) continue;
+            if ((enumeration.anyMine & bit) == 0) {
+                markSafe(cell);
+                progress = true;
+            } else if ((enumeration.anySafe & bit) == 0) {
+                markMine(cell);
+                progress = true;
+            }
+        }
+        return progress;
+    }
+
+    private static int positionOf(IntQueue cells, int cell) {
+        for (int p = 0; p < cells.size(); p++) {
+            if (cells.get(p) == cell) return p;
+        }
+        throw new IllegalStateException("Cell is not part of the enumeration!");
+    }
+
+    /**
+     * Enumerates the assignments of mines to at most 64 cells, each
+     * represented by a bit of a {@code long}, which satisfy every
+     * constraint: the number of mines among the cells of a constraint's
+     * mask must equal its mine count.
+     */
+    private static final class BitmaskEnumeration {
+
+        private final int cellCount;
+        private final long[] masks;
+        private final int[] mines;
+        private final int[][] constraintsOfCells;
+        private final long allCells;
+
+        /** The cells which are mines in at least one assignment. */
+        long anyMine = 0;
+        /** The cells which are safe in at least one assignment. */
+        long anySafe = 0;
+        private int budget = ENUMERATION_BUDGET;
+        private boolean found = false;
+
+        BitmaskEnumeration(int cellCount, long[] masks, int[] mines, int[][] constraintsOfCells) {
+            this.cellCount = cellCount;
+            this.masks = masks;
+            this.mines = mines;
+            this.constraintsOfCells = constraintsOfCells;
+            allCells = (cellCount == 64) ? -1L : (1L << cellCount) - 1;
+        }
+
+        /**
+         * Runs the enumeration.
+         *
+         * @return true, if the enumeration was completed and found at
+         *         least one assignment, false otherwise
+         */
+        boolean run() {
+            search(0, 0L);
+            return budget >= 0 && found;
+        }
+
+        private void search(int position, long assignment) {
+            if (--budget < 0 || (anyMine & anySafe) == allCells && found) return;
+            if (position == cellCount) {
+                found = true;
+                anyMine |= assignment;
+                anySafe |= ~assignment & allCells;
+                return;
+            }
+            long assigned = (position == 63) ? -1L : (1L << (position + 1)) - 1;
+            if (isConsistent(position, assignment, assigned)) {
+                search(position + 1, assignment);
+            }
+            long withMine = assignment | (1L << position);
+            if (isConsistent(position, withMine, assigned)) {
+                search(position + 1, withMine);
+            }
+        }
+
+        private boolean isConsistent(int position, long assignment, long assigned) {
+            for (int c : constraintsOfCells[position]) {
+                int placed = Long.bitCount(assignment & masks[c]);
+                int open = Long.bitCount(masks[c] & ~assigned);
+                if (placed > mines[c] || placed + open < mines[c]) return false;
+            }
+            return true;
+        }
+    }
+
+    /** A growable queue of {@code int}s, also usable as a list. */
+    private static final class IntQueue {
+
+        private int[] items = new int[16];
+        private int head = 0;
+        private int tail = 0;
+
+        void add(int item) {
+            if (tail == items.length) {
+                if (head > items.length / 2) {
+                    System.arraycopy(items, head, items, 0, tail - head);
+                } else {
+                    items = Arrays.copyOf(items, items.length * 2);
+                    System.arraycopy(items, head, items, 0, tail - head);
+                }
+                tail -= head;
+                head = 0;
+            }
+            items[tail++] = item;
+        }
+
+        int poll() {
+            return items[head++];
+        }
+
+        int peek() {
+            return items[head];
+        }
+
+        int get(int i) {
+            return items[head + i];
+        }
+
+        int size() {
+            return tail - head;
+        }
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+
+        void clear() {
+            head = 0;
+            tail = 0;
+        }
+    }
+}
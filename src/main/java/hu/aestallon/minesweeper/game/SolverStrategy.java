@@ -0,0 +1,42 @@
+package hu.aestallon.minesweeper.game;
+
+/**
+ * Reveals the cells deduced to be safe by a {@link Solver}, and guesses
+ * only when nothing can be deduced.
+ *
+ * <p>The first move reveals the centre of the board. Guesses are made
+ * uniformly among the hidden cells not known to be mines.
+ */
+public class SolverStrategy implements Strategy {
+
+    private final RandomStrategy guesser;
+    private Solver solver;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param seed the {@code long} seed of the guesses
+     */
+    public SolverStrategy(long seed) {
+        guesser = new RandomStrategy(seed);
+    }
+
+    @Override
+    public int nextMove(GameEngine engine, int[] changed) {
+        guesser.update(engine, changed);
+        if (solver == null) {
+            solver = new Solver(engine);
+            return (engine.getRows() / 2) * engine.getCols() + engine.getCols() / 2;
+        }
+        solver.update(changed);
+        int move = solver.nextSafeMove();
+        if (move >= 0) return move;
+
+        move = guesser.choose();
+        while (solver.isKnownMine(move)) {
+            guesser.exclude(move);
+            move = guesser.choose();
+        }
+        return move;
+    }
+}
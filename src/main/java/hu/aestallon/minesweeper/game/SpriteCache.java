@@ -0,0 +1,147 @@
+package hu.aestallon.minesweeper.game;
+
+import hu.aestallon.minesweeper.Main;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds every sprite of the game pre-scaled to a given cell size.
+ *
+ * <p>The sprites listed in {@link Main#SPRITE_NAMES} are scaled only
+ * once per size, and drawn side by side into a single atlas image,
+ * which is compatible with the screen whenever possible. Drawing a cell
+ * afterwards is a plain copy of an atlas region, without any scaling.
+ *
+ * <p>Sprites are identified by their position in
+ * {@link Main#SPRITE_NAMES}: the digits {@code 0...8} denote the
+ * revealed numbers, followed by {@link #MINE}, {@link #HIDDEN} and
+ * {@link #FLAGGED}.
+ *
+ * <p>For boards zoomed out too far to show sprites, the average colour
+ * of every sprite is available through {@link #averageColour(int)}.
+ */
+public final class SpriteCache {
+
+    /** The sprite of a revealed mine. */
+    public static final int MINE = 9;
+    /** The sprite of a hidden cell. */
+    public static final int HIDDEN = 10;
+    /** The sprite of a cell flagged as "suspected to be hiding a mine". */
+    public static final int FLAGGED = 11;
+
+    private static final Map<Integer, SpriteCache> caches = new ConcurrentHashMap<>();
+
+    private final int size;
+    private final Image atlas;
+
+    /**
+     * Returns the cache holding every sprite scaled to the given size.
+     * The cache is created upon the first request of a given size, and
+     * shared afterwards.
+     *
+     * @param size the height and width of a sprite, in pixels
+     * @return the {@code SpriteCache} of the given size
+     */
+    public static SpriteCache forSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Sprite size must be positive!");
+        }
+        return caches.computeIfAbsent(size, SpriteCache::new);
+    }
+
+    private SpriteCache(int size) {
+        this.size = size;
+        int width = size * Main.SPRITE_NAMES.size();
+        BufferedImage image = GraphicsEnvironment.isHeadless()
+                ? new BufferedImage(width, size, BufferedImage.TYPE_INT_ARGB)
+                : GraphicsEnvironment.getLocalGraphicsEnvironment()
+                        .getDefaultScreenDevice()
+                        .getDefaultConfiguration()
+                        .createCompatibleImage(width, size, Transparency.TRANSLUCENT);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            for (int i = 0; i < Main.SPRITE_NAMES.size(); i++) {
+                Image sprite = Main.sprites.get(Main.SPRITE_NAMES.get(i));
+                g.drawImage(sprite, i * size, 0, size, size, null);
+            }
+        } finally {
+            g.dispose();
+        }
+        atlas = image;
+    }
+
+    /**
+     * Returns the sprite of a revealed cell with the given value.
+     *
+     * @param value the {@code char} value of a cell, as defined by
+     *              {@link Minefield#getCell(int, int)}
+     * @return the index of the sprite
+     */
+    public static int spriteOf(char value) {
+        return (value == Minefield.MINE) ? MINE : value - '0';
+    }
+
+    /**
+     * Returns the average colour of a sprite, which can stand in for the
+     * sprite when cells are too small to show any of its details.
+     *
+     * @param sprite the index of the sprite
+     * @return the colour as an {@code int} in the default RGB colour
+     *         model
+     */
+    public static int averageColour(int sprite) {
+        return AverageColours.RGB[sprite];
+    }
+
+    /** Calculates the average colours once, upon first use. */
+    private static final class AverageColours {
+        private static final int[] RGB = new int[Main.SPRITE_NAMES.size()];
+
+        static {
+            for (int i = 0; i < RGB.length; i++) {
+                BufferedImage sprite = Main.sprites.get(Main.SPRITE_NAMES.get(i));
+                long red = 0, green = 0, blue = 0;
+                for (int y = 0; y < sprite.getHeight(); y++) {
+                    for (int x = 0; x < sprite.getWidth(); x++) {
+                        int rgb = sprite.getRGB(x, y);
+                        red += (rgb >> 16) & 0xFF;
+                        green += (rgb >> 8) & 0xFF;
+                        blue += rgb & 0xFF;
+                    }
+                }
+                long pixelCount = (long) sprite.getWidth() * sprite.getHeight();
+                RGB[i] = (int) (red / pixelCount) << 16
+                        | (int) (green / pixelCount) << 8
+                        | (int) (blue / pixelCount);
+            }
+        }
+
+        private AverageColours() {}
+    }
+
+    /**
+     * Draws a sprite with its top left corner at the given position.
+     *
+     * @param g      the {@code Graphics} to draw with
+     * @param sprite the index of the sprite
+     * @param x      the horizontal position, in pixels
+     * @param y      the vertical position, in pixels
+     */
+    public void draw(Graphics g, int sprite, int x, int y) {
+        int sx = sprite * size;
+        g.drawImage(atlas, x, y, x + size, y + size, sx, 0, sx + size, size, null);
+    }
+
+    /**
+     * Returns the height and width of the sprites in this cache.
+     *
+     * @return the size of a sprite, in pixels
+     */
+    public int getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,27 @@
+package hu.aestallon.minesweeper.game;
+
+/**
+ * Plays a single game of Minesweeper, by choosing the cells to reveal.
+ *
+ * <p>A strategy is created for every game, and is asked for a move as
+ * long as the game is in progress. Along with the game, it receives the
+ * cells changed by its previous move, thus it may keep track of the
+ * board incrementally instead of rescanning it before every move.
+ *
+ * @see GameEngine
+ * @see RandomStrategy
+ */
+public interface Strategy {
+
+    /**
+     * Chooses the next cell to reveal.
+     *
+     * @param engine  the {@link GameEngine} of the game being played,
+     *                with a status of {@link GameEngine.Status#PLAYING}
+     * @param changed the indices of the cells changed by the previous
+     *                move, empty before the first move
+     * @return the flat index ({@code x * cols + y}) of a hidden,
+     *         unflagged cell to reveal
+     */
+    int nextMove(GameEngine engine, int[] changed);
+}
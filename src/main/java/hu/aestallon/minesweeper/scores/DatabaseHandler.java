@@ -6,21 +6,93 @@ import java.io.File;
 import java.nio.file.Path;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-public class DatabaseHandler {
+/**
+ * Provides access to the SQLite database storing the scores of the game.
+ *
+ * <p>Instances keep a single connection open to the database, along with
+ * every statement prepared through it, and share them across every
+ * method call. Players are identified case-insensitively, by the
+ * upper-case key stored along with their name. Methods are synchronized,
+ * as the connection may not be used by multiple threads at once. The
+ * connection and the statements are released by {@link #close()}. The
+ * instance returned by {@link #getInstance()} is closed automatically
+ * when the JVM shuts down, once the scores pending in
+ * {@link ScoreWriter#getInstance()} are written.
+ *
+ * <p>The database is used in write-ahead logging mode, in which a
+ * commit only appends to the log, and the log is synced to the database
+ * file upon checkpoints, including the one performed when the last
+ * connection is closed. Many scores are best inserted at once, by
+ * {@link #insertScores(List)}, or through a {@link ScoreWriter}.
+ */
+public class DatabaseHandler implements AutoCloseable {
 
     private static final String DB_HEADER = "jdbc:sqlite:";
     private static final String DB_NAME = "/minesweeper.db";
 
+    /**
+     * The schema migrations of the database, in order: the statements of
+     * the element at index {@code i} migrate the schema from version
+     * {@code i} to version {@code i + 1}.
+     */
+    private static final String[][] MIGRATIONS = {
+            // 1: Case-insensitive player key, and indices for the queries:
+            {
+                    "ALTER TABLE scores ADD COLUMN player_key varchar(255) NOT NULL DEFAULT '';",
+                    "UPDATE scores SET player_key = UPPER(player);",
+                    "CREATE INDEX IF NOT EXISTS idx_scores_player_key ON scores (player_key, score);",
+                    "CREATE INDEX IF NOT EXISTS idx_scores_score ON scores (score DESC);"
+            },
+            // 2: Details of the game each score was achieved in, unknown
+            //    (null) for the scores saved before, and an index for the
+            //    per-configuration queries:
+            {
+                    "ALTER TABLE scores ADD COLUMN row_count integer;",
+                    "ALTER TABLE scores ADD COLUMN col_count integer;",
+                    "ALTER TABLE scores ADD COLUMN mine_count integer;",
+                    "ALTER TABLE scores ADD COLUMN duration_ns integer;",
+                    "ALTER TABLE scores ADD COLUMN ended_at integer;",
+                    "ALTER TABLE scores ADD COLUMN seed integer;",
+                    "CREATE INDEX IF NOT EXISTS idx_scores_config ON scores (row_count, col_count, mine_count, score DESC);"
+            }
+    };
+
+    private static final String INSERT_SCORE_SQL = """
+            INSERT INTO scores (player, player_key, score, row_count, col_count,
+                                mine_count, duration_ns, ended_at, seed)
+            VALUES (?, UPPER(?), ?, ?, ?, ?, ?, ?, ?);""";
+    private static final String SELECT_SCORE_COLUMNS = """
+            SELECT  s.player      AS "NAME",
+                    s.score       AS "SCORE",
+                    s.row_count   AS "ROWS",
+                    s.col_count   AS "COLS",
+                    s.mine_count  AS "MINE_COUNT",
+                    s.duration_ns AS "DURATION_NS",
+                    s.ended_at    AS "ENDED_AT",
+                    s.seed        AS "SEED"
+            """;
+
     private static DatabaseHandler dbHandler = null;
 
     private final String dbUrl;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private Connection connection;
 
     public static DatabaseHandler getInstance() {
         if (dbHandler == null) {
             dbHandler = new DatabaseHandler(DB_HEADER, getInstallDirectory(), DB_NAME);
             dbHandler.initDatabase();
+            // Shutdown hooks run concurrently in no particular order, thus
+            // a single hook writes the pending scores, then closes the
+            // connection:
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                ScoreWriter.closeInstance();
+                dbHandler.close();
+            }));
         }
         return dbHandler;
     }
@@ -54,50 +126,151 @@ public class DatabaseHandler {
     }
 
     /**
-     * Establishes connection to the database.
+     * Returns the connection to the database, establishing it if it is
+     * not open yet.
+     *
+     * <p>The connection is kept open for the lifetime of the instance,
+     * and is shared by every method, until {@link #close()} is called.
+     * Upon opening, the database is switched to write-ahead logging,
+     * which only syncs to disk on checkpoints instead of every commit.
      *
      * @return a {@code Connection} instance representing the connection to the database
      * @throws SQLException if a database access error occurs
      */
     private Connection connect() throws SQLException {
-        return DriverManager.getConnection(dbUrl);
+        if (connection == null || connection.isClosed()) {
+            connection = DriverManager.getConnection(dbUrl);
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA journal_mode = WAL;");
+                stmt.execute("PRAGMA synchronous = NORMAL;");
+            }
+        }
+        return connection;
     }
 
+    /**
+     * Returns a prepared statement of the given SQL, preparing it only
+     * upon its first use.
+     *
+     * @param sql the {@code String} SQL of the statement
+     * @return a cached {@code PreparedStatement}, which should not be
+     *         closed by the caller
+     * @throws SQLException if a database access error occurs
+     */
+    private PreparedStatement prepare(String sql) throws SQLException {
+        Connection conn = connect();
+        PreparedStatement stmt = statements.get(sql);
+        if (stmt == null || stmt.isClosed()) {
+            stmt = conn.prepareStatement(sql);
+            statements.put(sql, stmt);
+        }
+        return stmt;
+    }
 
-    private void initDatabase() {
+    /**
+     * Closes every cached statement and the connection to the database.
+     * Closing the last connection checkpoints the write-ahead log,
+     * durably storing every committed score in the database file.
+     *
+     * <p>The instance remains usable: the next method call establishes
+     * a new connection.
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            for (PreparedStatement stmt : statements.values()) {
+                stmt.close();
+            }
+            statements.clear();
+            if (connection != null) {
+                connection.close();
+                connection = null;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Creates the scores table if it does not exist, and migrates it to
+     * the latest schema version.
+     *
+     * <p>The schema version of the database is stored in its
+     * {@code user_version} pragma. Every migration in
+     * {@link #MIGRATIONS} not yet applied to the database is executed in
+     * order, each in its own transaction, along with bumping the
+     * version.
+     */
+    synchronized void initDatabase() {
         final String sql = """
                 CREATE TABLE IF NOT EXISTS scores(
                     id     integer      PRIMARY KEY,
                     player varchar(255) NOT NULL,
                     score  integer      NOT NULL
                 );""";
-        try (Connection conn = connect()) {
-            Statement stmt = conn.createStatement();
-            stmt.execute(sql);
+        try {
+            Connection conn = connect();
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(sql);
+            }
+            int version = getSchemaVersion();
+            for (; version < MIGRATIONS.length; version++) {
+                conn.setAutoCommit(false);
+                try (Statement stmt = conn.createStatement()) {
+                    for (String migrationSql : MIGRATIONS[version]) {
+                        stmt.execute(migrationSql);
+                    }
+                    stmt.execute("PRAGMA user_version = " + (version + 1) + ";");
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Returns the schema version of the database.
+     *
+     * @return the number of migrations applied to the database
+     * @throws SQLException if a database access error occurs
+     */
+    synchronized int getSchemaVersion() throws SQLException {
+        try (Statement stmt = connect().createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version;")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
     @SuppressWarnings("unused")
-    public void clear() {
+    public synchronized void clear() {
         final String sql = "DELETE FROM scores;";
-        try (Connection conn = connect()) {
-            Statement stmt = conn.createStatement();
+        try (Statement stmt = connect().createStatement()) {
             stmt.execute(sql);
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
-    public int insertScore(String name, int score) {
-        final String sql = """
-                INSERT INTO scores (player, score)
-                VALUES (?,?);""";
-        try (Connection conn = connect()) {
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, name);
-            stmt.setInt(2, score);
+    public synchronized int insertScore(String name, int score) {
+        return insertScore(new Score(name, score));
+    }
+
+    /**
+     * Inserts the given score, along with the details of its game.
+     *
+     * @param score the {@link Score} to insert
+     * @return the number of scores inserted
+     */
+    public synchronized int insertScore(Score score) {
+        try {
+            PreparedStatement stmt = prepare(INSERT_SCORE_SQL);
+            bindScore(stmt, score);
             return stmt.executeUpdate();
         } catch (SQLException e) {
             e.printStackTrace();
@@ -105,19 +278,106 @@ public class DatabaseHandler {
         }
     }
 
-    public List<Integer> getPlayerScoresOrdered(String name) {
+    /**
+     * Inserts the given scores in a single transaction, executing the
+     * inserts as one batch.
+     *
+     * <p>If any of the inserts fail, none of the scores are stored.
+     *
+     * @param scores the {@code List} of {@link Score}s to insert
+     * @return the number of scores inserted
+     */
+    public synchronized int insertScores(List<Score> scores) {
+        if (scores.isEmpty()) return 0;
+        try {
+            Connection conn = connect();
+            PreparedStatement stmt = prepare(INSERT_SCORE_SQL);
+            conn.setAutoCommit(false);
+            try {
+                for (Score score : scores) {
+                    bindScore(stmt, score);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+                return scores.size();
+            } catch (SQLException e) {
+                stmt.clearBatch();
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Binds the given score to the parameters of {@link #INSERT_SCORE_SQL}.
+     *
+     * @param stmt  the {@code PreparedStatement} of the insert
+     * @param score the {@link Score} to bind
+     * @throws SQLException if a database access error occurs
+     */
+    private static void bindScore(PreparedStatement stmt, Score score) throws SQLException {
+        stmt.setString(1, score.name());
+        stmt.setString(2, score.name());
+        stmt.setInt(3, score.score());
+        stmt.setObject(4, score.rows(), Types.INTEGER);
+        stmt.setObject(5, score.cols(), Types.INTEGER);
+        stmt.setObject(6, score.mineCount(), Types.INTEGER);
+        stmt.setObject(7, score.durationNanos(), Types.BIGINT);
+        stmt.setObject(8, score.endedAt(), Types.BIGINT);
+        stmt.setObject(9, score.seed(), Types.BIGINT);
+    }
+
+    /**
+     * Reads a score from the current row of a result set, selected with
+     * {@link #SELECT_SCORE_COLUMNS}.
+     *
+     * @param rs the {@code ResultSet} positioned on the row to read
+     * @return the {@link Score} stored in the row
+     * @throws SQLException if a database access error occurs
+     */
+    private static Score readScore(ResultSet rs) throws SQLException {
+        return new Score(
+                rs.getString("NAME"),
+                rs.getInt("SCORE"),
+                getNullableInt(rs, "ROWS"),
+                getNullableInt(rs, "COLS"),
+                getNullableInt(rs, "MINE_COUNT"),
+                getNullableLong(rs, "DURATION_NS"),
+                getNullableLong(rs, "ENDED_AT"),
+                getNullableLong(rs, "SEED")
+        );
+    }
+
+    private static Integer getNullableInt(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Long getNullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    public synchronized List<Integer> getPlayerScoresOrdered(String name) {
         final String sql = """
                 SELECT   s.score AS "SCORE"
                 FROM     MAIN.scores s
-                WHERE    UPPER(s.player) = UPPER(?)
+                WHERE    s.player_key = UPPER(?)
                 ORDER BY s.score;""";
         List<Integer> playerScores = new ArrayList<>();
-        try (Connection conn = connect()) {
-            PreparedStatement stmt = conn.prepareStatement(sql);
+        try {
+            PreparedStatement stmt = prepare(sql);
             stmt.setString(1, name);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                playerScores.add(rs.getInt("SCORE"));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    playerScores.add(rs.getInt("SCORE"));
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -125,14 +385,45 @@ public class DatabaseHandler {
         return playerScores;
     }
 
-    public int getHighestScore() {
+    /**
+     * Returns the best, the number and the average of a player's scores,
+     * calculated by a single aggregate query.
+     *
+     * <p>The best score is looked up from the index on the player key
+     * and score, while the count and the average are computed from the
+     * same index, without reading the table itself.
+     *
+     * @param name the name of the player, case-insensitive
+     * @return the {@link PlayerStats} of the player, all zeros if the
+     *         player has no scores yet
+     */
+    public synchronized PlayerStats getPlayerStats(String name) {
+        final String sql = """
+                SELECT  MAX(s.score)   AS "BEST",
+                        COUNT(s.score) AS "COUNT",
+                        AVG(s.score)   AS "AVERAGE"
+                FROM    MAIN.scores s
+                WHERE   s.player_key = UPPER(?);""";
+        try {
+            PreparedStatement stmt = prepare(sql);
+            stmt.setString(1, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new PlayerStats(rs.getInt("BEST"), rs.getInt("COUNT"), rs.getDouble("AVERAGE"));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return new PlayerStats(0, 0, 0);
+    }
+
+    public synchronized int getHighestScore() {
         final String sql = """
                 SELECT  MAX(s.score) AS "BEST"
                 FROM    MAIN.scores s;""";
         Integer highestScore = null;
-        try (Connection conn = connect()) {
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            ResultSet rs = stmt.executeQuery();
+        try (ResultSet rs = prepare(sql).executeQuery()) {
             if (rs.next()) highestScore = rs.getInt("BEST");
         } catch (SQLException e) {
             e.printStackTrace();
@@ -140,25 +431,15 @@ public class DatabaseHandler {
         return (highestScore == null) ? 0 : highestScore;
     }
 
-    public List<Score> getTopTenScores() {
-        final String sql = """
-                SELECT
-                    s.player    AS "NAME",
-                    s.score     AS "SCORE"
-                FROM
-                    MAIN.scores s
-                ORDER BY
-                    s.score DESC
-                LIMIT 10;""";
+    public synchronized List<Score> getTopTenScores() {
+        final String sql = SELECT_SCORE_COLUMNS + """
+                FROM     MAIN.scores s
+                ORDER BY s.score DESC
+                LIMIT    10;""";
         List<Score> scores = new ArrayList<>();
-        try (Connection conn = connect()) {
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(sql);
+        try (ResultSet rs = prepare(sql).executeQuery()) {
             while (rs.next()) {
-                String name = rs.getString("NAME");
-                Integer score = rs.getInt("SCORE");
-                Score s = new Score(name, score);
-                scores.add(s);
+                scores.add(readScore(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -166,9 +447,86 @@ public class DatabaseHandler {
         return scores;
     }
 
+    /**
+     * Returns the top scores achieved on boards of the given size and
+     * mine count, looked up from the index on the game configuration.
+     *
+     * <p>Scores saved before the configuration of the games was recorded
+     * are never returned.
+     *
+     * @param rows      the {@code int} number of rows of the board
+     * @param cols      the {@code int} number of columns of the board
+     * @param mineCount the {@code int} number of mines of the board
+     * @param limit     the maximum {@code int} number of scores returned
+     * @return the {@code List} of the top scores, in descending order
+     */
+    public synchronized List<Score> getTopScores(int rows, int cols, int mineCount, int limit) {
+        final String sql = SELECT_SCORE_COLUMNS + """
+                FROM     MAIN.scores s
+                WHERE    s.row_count = ? AND s.col_count = ? AND s.mine_count = ?
+                ORDER BY s.score DESC
+                LIMIT    ?;""";
+        List<Score> scores = new ArrayList<>();
+        try {
+            PreparedStatement stmt = prepare(sql);
+            stmt.setInt(1, rows);
+            stmt.setInt(2, cols);
+            stmt.setInt(3, mineCount);
+            stmt.setInt(4, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    scores.add(readScore(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return scores;
+    }
+
+    /**
+     * A score achieved by a player, along with the details of the game it
+     * was achieved in.
+     *
+     * <p>The details are {@code null} if they are unknown, as is the case
+     * for scores saved before they were recorded.
+     *
+     * @param name          the name of the player
+     * @param score         the score achieved
+     * @param rows          the number of rows of the board
+     * @param cols          the number of columns of the board
+     * @param mineCount     the number of mines of the board
+     * @param durationNanos the duration of the game, in nanoseconds
+     * @param endedAt       the end of the game, in millisecond epoch-time
+     * @param seed          the seed of the board, which regenerates it
+     *                      along with the first revealed cell
+     */
     public record Score(
             String name,
-            Integer score
+            Integer score,
+            Integer rows,
+            Integer cols,
+            Integer mineCount,
+            Long durationNanos,
+            Long endedAt,
+            Long seed
+    ) {
+
+        /**
+         * Creates a score without any details of its game.
+         *
+         * @param name  the name of the player
+         * @param score the score achieved
+         */
+        public Score(String name, Integer score) {
+            this(name, score, null, null, null, null, null, null);
+        }
+    }
+
+    public record PlayerStats(
+            int best,
+            int count,
+            double average
     ) {
     }
 }
@@ -0,0 +1,135 @@
+package hu.aestallon.minesweeper.scores;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the high scores of the game in memory, writing every new score
+ * through to the database with a {@link ScoreWriter}.
+ *
+ * <p>The top scores and the highest score are loaded from the database
+ * once, upon construction. The personal best of a player is loaded
+ * upon its first request. Afterwards, every score submitted through
+ * {@link #submit(DatabaseHandler.Score)} is queued for insertion into the
+ * database, then updates these in memory, thus queries are served
+ * without any database access.
+ *
+ * <p>Players are identified case-insensitively, the same way as by the
+ * {@link DatabaseHandler}. Instances are thread-safe.
+ *
+ * @see DatabaseHandler
+ * @see ScoreWriter
+ */
+public class Leaderboard {
+
+    /** The number of top scores kept by an instance. */
+    public static final int TOP_SIZE = 10;
+
+    private final DatabaseHandler databaseHandler;
+    private final ScoreWriter scoreWriter;
+    /** The top scores, with the lowest of them at the head. */
+    private final PriorityQueue<DatabaseHandler.Score> topScores =
+            new PriorityQueue<>(TOP_SIZE + 1, Comparator.comparing(DatabaseHandler.Score::score));
+    /** The personal bests of the players, by their player keys. */
+    private final Map<String, Integer> personalBests = new HashMap<>();
+
+    private int highestScore;
+
+    /**
+     * Creates a new instance, loading the top scores and the highest
+     * score from the provided database.
+     *
+     * @param databaseHandler a {@link DatabaseHandler}, not null
+     * @param scoreWriter     the {@link ScoreWriter} storing the new
+     *                        scores in the same database, not null
+     */
+    public Leaderboard(DatabaseHandler databaseHandler, ScoreWriter scoreWriter) {
+        this.databaseHandler = Objects.requireNonNull(databaseHandler);
+        this.scoreWriter = Objects.requireNonNull(scoreWriter);
+        highestScore = databaseHandler.getHighestScore();
+        databaseHandler.getTopTenScores().forEach(this::offerTopScore);
+    }
+
+    /**
+     * Returns the player key of the given name, matching the result of
+     * SQLite's {@code UPPER} function: only ASCII letters are converted
+     * to upper case.
+     *
+     * @param name the name of a player
+     * @return the {@code String} key identifying the player
+     */
+    private static String playerKey(String name) {
+        char[] key = name.toCharArray();
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] >= 'a' && key[i] <= 'z') key[i] -= 'a' - 'A';
+        }
+        return new String(key);
+    }
+
+    private void offerTopScore(DatabaseHandler.Score score) {
+        if (topScores.size() < TOP_SIZE) {
+            topScores.add(score);
+        } else if (score.score() > topScores.element().score()) {
+            topScores.remove();
+            topScores.add(score);
+        }
+    }
+
+    /**
+     * Returns the highest score ever achieved.
+     *
+     * @return the highest score, or {@code 0} if there are no scores yet
+     */
+    public synchronized int getHighestScore() {
+        return highestScore;
+    }
+
+    /**
+     * Returns the highest score ever achieved by the given player.
+     *
+     * @param name the name of the player, case-insensitive
+     * @return the personal best of the player, or {@code 0} if the
+     *         player has no scores yet
+     */
+    public synchronized int getPersonalBest(String name) {
+        return personalBests.computeIfAbsent(
+                playerKey(name),
+                key -> databaseHandler.getPlayerStats(name).best()
+        );
+    }
+
+    /**
+     * Returns the top scores, in descending order.
+     *
+     * @return a {@code List} of at most {@link #TOP_SIZE} scores
+     */
+    public synchronized List<DatabaseHandler.Score> getTopScores() {
+        List<DatabaseHandler.Score> scores = new ArrayList<>(topScores);
+        scores.sort(Comparator.comparing(DatabaseHandler.Score::score).reversed());
+        return scores;
+    }
+
+    /**
+     * Queues a new score to be stored in the database, and records it in
+     * memory once it is queued.
+     *
+     * @param score the {@link DatabaseHandler.Score} achieved, not null
+     * @throws IllegalStateException if the {@link ScoreWriter} is closed,
+     *                               in which case the score is not
+     *                               recorded
+     */
+    public synchronized void submit(DatabaseHandler.Score score) {
+        scoreWriter.submit(score);
+        highestScore = Math.max(highestScore, score.score());
+        // The stored best of the player must be known, or a lower score
+        // would be cached as the personal best:
+        int personalBest = getPersonalBest(score.name());
+        personalBests.put(playerKey(score.name()), Math.max(personalBest, score.score()));
+        offerTopScore(score);
+    }
+}
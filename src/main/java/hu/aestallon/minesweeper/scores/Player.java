@@ -5,17 +5,19 @@ import java.util.Objects;
 public class Player {
 
     private final String name;
-    private final DatabaseHandler databaseHandler;
+    private final Leaderboard leaderboard;
 
-    private int personalBest;
+    /**
+     * Updated by the thread saving the scores, read by the Event
+     * Dispatch Thread.
+     */
+    private volatile int personalBest;
 
-    public Player(String name, DatabaseHandler databaseHandler) {
+    public Player(String name, Leaderboard leaderboard) {
         this.name = Objects.requireNonNull(name);
-        this.databaseHandler = Objects.requireNonNull(databaseHandler);
+        this.leaderboard = Objects.requireNonNull(leaderboard);
 
-        personalBest = databaseHandler.getPlayerScoresOrdered(name).stream()
-                .mapToInt(Integer::intValue)
-                .max().orElse(0);
+        personalBest = leaderboard.getPersonalBest(name);
     }
 
     public String getName() {
@@ -27,17 +29,51 @@ public class Player {
     }
 
     public ScoreCategory saveScore(int score) {
+        return saveScore(new DatabaseHandler.Score(name, score));
+    }
+
+    /**
+     * Saves a score of this player, along with the details of the game
+     * it was achieved in.
+     *
+     * @param score         the score achieved
+     * @param rows          the number of rows of the board
+     * @param cols          the number of columns of the board
+     * @param mineCount     the number of mines of the board
+     * @param durationNanos the duration of the game, in nanoseconds
+     * @param endedAt       the end of the game, in millisecond epoch-time
+     * @param seed          the seed of the board
+     * @return the {@link ScoreCategory} of the score
+     */
+    public ScoreCategory saveScore(int score, int rows, int cols, int mineCount,
+                                   long durationNanos, long endedAt, long seed) {
+        return saveScore(new DatabaseHandler.Score(name, score, rows, cols, mineCount, durationNanos, endedAt, seed));
+    }
+
+    /**
+     * Saves a score of this player, along with the details of the game
+     * it was achieved in. Scores of the same player are saved one at a
+     * time, thus the personal best is compared and updated atomically.
+     *
+     * @param result the {@link DatabaseHandler.Score} achieved, named
+     *               after this player
+     * @return the {@link ScoreCategory} of the score
+     */
+    public synchronized ScoreCategory saveScore(DatabaseHandler.Score result) {
+        if (!name.equals(result.name())) {
+            throw new IllegalArgumentException("Score belongs to another player!");
+        }
+        int score = result.score();
         ScoreCategory category;
-        if (score > databaseHandler.getHighestScore()) {
-            personalBest = score;
+        if (score > leaderboard.getHighestScore()) {
             category = ScoreCategory.HIGH_SCORE;
         } else if (score > personalBest){
-            personalBest = score;
             category = ScoreCategory.PERSONAL_BEST;
         } else {
             category = ScoreCategory.REGULAR;
         }
-        databaseHandler.insertScore(this.name, score);
+        leaderboard.submit(result);
+        if (category != ScoreCategory.REGULAR) personalBest = score;
         return category;
     }
 }
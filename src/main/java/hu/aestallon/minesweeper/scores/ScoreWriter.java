@@ -0,0 +1,209 @@
+package hu.aestallon.minesweeper.scores;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Stores scores in the database asynchronously, in batches.
+ *
+ * <p>Scores submitted through {@link #submit(DatabaseHandler.Score)} are
+ * queued, and inserted by a background thread. Whenever the thread wakes up, it
+ * takes every queued score (up to {@link #MAX_BATCH_SIZE}), and inserts
+ * them in a single transaction, thus the cost of a commit is shared by
+ * every score arriving in the meantime.
+ *
+ * <p>A batch failing to be inserted is retried up to
+ * {@link #MAX_ATTEMPTS} times, then its scores are counted as failed
+ * (see {@link #getFailedCount()}), and the thread carries on with the
+ * next batch. {@link #flush()} waits until every score submitted before
+ * it is either inserted or failed, and tells whether the scores pending
+ * upon its call were all inserted, while {@link #close()} flushes the
+ * queue, reports the scores lost, and stops the thread. Should the
+ * thread stop unexpectedly, flushing returns at once, reporting the
+ * scores left in the queue as not inserted.
+ *
+ * <p>The instance returned by {@link #getInstance()} is closed
+ * automatically when the JVM shuts down, by the shutdown hook of its
+ * database, right before the database itself.
+ *
+ * @see DatabaseHandler#insertScores(List)
+ */
+public class ScoreWriter implements AutoCloseable {
+
+    /** The maximum number of scores inserted in one transaction. */
+    static final int MAX_BATCH_SIZE = 1024;
+    /** The number of times a batch is attempted to be inserted. */
+    static final int MAX_ATTEMPTS = 3;
+    /** The time waited before attempting a failed batch again. */
+    private static final long RETRY_DELAY_MILLIS = 100;
+
+    private static ScoreWriter scoreWriter = null;
+
+    private final DatabaseHandler databaseHandler;
+    private final BlockingQueue<DatabaseHandler.Score> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+
+    // Guarded by this:
+    private long submittedCount = 0;
+    private long writtenCount = 0;
+    private long failedCount = 0;
+    private boolean closed = false;
+    /** Whether the background thread has stopped. */
+    private boolean stopped = false;
+
+    /**
+     * Returns the writer storing scores in the database of the
+     * application.
+     *
+     * @return the {@code ScoreWriter} of {@link DatabaseHandler#getInstance()}
+     */
+    public static synchronized ScoreWriter getInstance() {
+        if (scoreWriter == null) {
+            scoreWriter = new ScoreWriter(DatabaseHandler.getInstance());
+        }
+        return scoreWriter;
+    }
+
+    /**
+     * Closes the instance returned by {@link #getInstance()}, if it has
+     * been created. Called by the shutdown hook of the database, before
+     * its connection is closed.
+     */
+    static synchronized void closeInstance() {
+        if (scoreWriter != null) {
+            scoreWriter.close();
+        }
+    }
+
+    /**
+     * Creates a new writer, and starts its background thread.
+     *
+     * @param databaseHandler the {@link DatabaseHandler} to store the
+     *                        scores with, not null
+     */
+    public ScoreWriter(DatabaseHandler databaseHandler) {
+        this.databaseHandler = Objects.requireNonNull(databaseHandler);
+        thread = new Thread(this::run, "minesweeper-score-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                List<DatabaseHandler.Score> batch = new ArrayList<>();
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                boolean inserted = insert(batch);
+                synchronized (this) {
+                    if (inserted) writtenCount += batch.size();
+                    else failedCount += batch.size();
+                    notifyAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            // The writer has been closed, with its queue flushed.
+        } finally {
+            synchronized (this) {
+                stopped = true;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Inserts a batch of scores, attempting it again if it fails.
+     *
+     * @param batch the {@code List} of {@link DatabaseHandler.Score}s to
+     *              insert
+     * @return true, if the batch was inserted, false if every attempt
+     *         failed
+     * @throws InterruptedException if the writer is closed while waiting
+     *                              to attempt again
+     */
+    private boolean insert(List<DatabaseHandler.Score> batch) throws InterruptedException {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                if (databaseHandler.insertScores(batch) == batch.size()) return true;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+            if (attempt < MAX_ATTEMPTS) Thread.sleep(RETRY_DELAY_MILLIS);
+        }
+        return false;
+    }
+
+    /**
+     * Queues the given score to be stored in the database.
+     *
+     * @param score the {@link DatabaseHandler.Score} to store, not null
+     * @throws IllegalStateException if the writer is closed, or its
+     *                               thread has stopped
+     */
+    public synchronized void submit(DatabaseHandler.Score score) {
+        if (closed || stopped) {
+            throw new IllegalStateException("Score writer is already closed!");
+        }
+        queue.add(Objects.requireNonNull(score));
+        submittedCount++;
+    }
+
+    /**
+     * Waits until every score submitted so far has been either inserted
+     * into the database, or failed to be inserted. Returns at once if
+     * the background thread has stopped.
+     *
+     * <p>If the waiting thread is interrupted, this method returns
+     * early, with the interrupt status of the thread set.
+     *
+     * @return true, if every score submitted so far has been saved,
+     *         apart from those already counted as failed when this
+     *         method was called, false otherwise
+     */
+    public synchronized boolean flush() {
+        long target = submittedCount;
+        long failedBefore = failedCount;
+        try {
+            while (writtenCount + failedCount < target && !stopped) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return failedCount == failedBefore && writtenCount + failedBefore >= target;
+    }
+
+    /**
+     * Returns the number of scores which failed to be inserted.
+     *
+     * @return the {@code long} number of scores lost
+     */
+    public synchronized long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Flushes the queued scores, then stops the background thread.
+     * Scores cannot be submitted afterwards. If any of the scores could
+     * not be inserted, it is reported on the standard error stream.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        flush();
+        long lostCount;
+        synchronized (this) {
+            lostCount = submittedCount - writtenCount;
+        }
+        if (lostCount > 0) {
+            System.err.println(lostCount + " score(s) could not be saved!");
+        }
+        thread.interrupt();
+    }
+}
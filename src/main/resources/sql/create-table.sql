@@ -5,10 +5,28 @@ CREATE TABLE IF NOT EXISTS scores(
     score   integer         NOT NULL
 );
 
+-- Migration 1: case-insensitive player key and indices
+ALTER TABLE scores ADD COLUMN player_key varchar(255) NOT NULL DEFAULT '';
+UPDATE scores SET player_key = UPPER(player);
+CREATE INDEX IF NOT EXISTS idx_scores_player_key ON scores (player_key, score);
+CREATE INDEX IF NOT EXISTS idx_scores_score ON scores (score DESC);
+PRAGMA user_version = 1;
+
+-- Migration 2: details of the game (null for earlier scores)
+ALTER TABLE scores ADD COLUMN row_count integer;
+ALTER TABLE scores ADD COLUMN col_count integer;
+ALTER TABLE scores ADD COLUMN mine_count integer;
+ALTER TABLE scores ADD COLUMN duration_ns integer;
+ALTER TABLE scores ADD COLUMN ended_at integer;
+ALTER TABLE scores ADD COLUMN seed integer;
+CREATE INDEX IF NOT EXISTS idx_scores_config ON scores (row_count, col_count, mine_count, score DESC);
+PRAGMA user_version = 2;
+
 -- Insert new result
 INSERT INTO
-    scores (player, score)
-VALUES (?,?);
+    scores (player, player_key, score, row_count, col_count,
+            mine_count, duration_ns, ended_at, seed)
+VALUES (?, UPPER(?), ?, ?, ?, ?, ?, ?, ?);
 
 -- Select highest ever score
 SELECT  MAX(s.score)
@@ -17,12 +35,12 @@ FROM    scores s;
 -- Select a given player's highest ever score
 SELECT  MAX(s.score)
 FROM    scores s
-WHERE   UPPER(s.player) = UPPER('?');
+WHERE   s.player_key = UPPER('?');
 
 -- Select a given player's scores
 SELECT  s.score
 FROM    scores s
-WHERE   UPPER(s.player) = UPPER(?)
+WHERE   s.player_key = UPPER(?)
 ORDER BY s.score;
 
 -- Empty table
@@ -38,3 +56,20 @@ ORDER BY
     s.score DESC
 LIMIT 10;
 
+-- Get the top scores of a board configuration
+SELECT
+    s.player        AS "NAME",
+    s.score         AS "SCORE",
+    s.row_count     AS "ROWS",
+    s.col_count     AS "COLS",
+    s.mine_count    AS "MINE_COUNT",
+    s.duration_ns   AS "DURATION_NS",
+    s.ended_at      AS "ENDED_AT",
+    s.seed          AS "SEED"
+FROM
+    MAIN.scores s
+WHERE
+    s.row_count = ? AND s.col_count = ? AND s.mine_count = ?
+ORDER BY
+    s.score DESC
+LIMIT ?;
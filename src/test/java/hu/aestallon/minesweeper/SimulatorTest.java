@@ -0,0 +1,52 @@
+package hu.aestallon.minesweeper;
+
+import hu.aestallon.minesweeper.game.RandomStrategy;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SimulatorTest {
+
+    private static final int testGameCount = 2_000;
+    private static final long testSeed = 2022L;
+
+    private static Simulator.Report simulate(int rows, int cols, int mineCount, int threadCount) {
+        return new Simulator(rows, cols, mineCount, RandomStrategy::new, threadCount)
+                .run(testGameCount, testSeed);
+    }
+
+    @Test
+    public void everyGameIsPlayedAndTimed() {
+        Simulator.Report report = simulate(16, 16, 40, 4);
+        assertEquals(testGameCount, report.gameCount());
+        assertEquals(testGameCount, report.latencies().length);
+        assertTrue(report.latencyPercentile(0) > 0);
+        assertTrue(report.latencyPercentile(50) <= report.latencyPercentile(99));
+        assertTrue(report.latencyPercentile(99) <= report.latencyPercentile(100));
+    }
+
+    @Test
+    public void simulationsOfTheSameSeedHaveTheSameOutcome() {
+        assertEquals(simulate(10, 10, 10, 1).winCount(), simulate(10, 10, 10, 4).winCount());
+    }
+
+    @Test
+    public void randomPlayWinsSomeGamesOfAnEasyBoard() {
+        // The first reveal always clears an empty region, leaving only a
+        // few hidden cells around the single mine:
+        Simulator.Report report = simulate(1, 30, 1, 2);
+        assertTrue(report.winCount() > 0);
+        assertTrue(report.winRate() <= 1.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void boardWithoutRoomForTheMinesIsRejected() {
+        simulate(4, 4, 16, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void simulationWithoutThreadsIsRejected() {
+        simulate(4, 4, 1, 0);
+    }
+}
@@ -9,6 +9,7 @@ import org.mockito.Mockito;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 public class GameConfigTest {
 
@@ -232,4 +233,39 @@ public class GameConfigTest {
         assertEquals(expected, actual);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeDurationIsNotAllowed() {
+        gameConfig.setDuration(-1);
+    }
+
+    @Test
+    public void detailsOfTheGameAreStored() {
+        gameConfig.setDuration(60_000_123_456L);
+        gameConfig.setSeed(2022L);
+
+        assertEquals(60_000_123_456L, gameConfig.getDuration());
+        assertEquals(2022L, gameConfig.getSeed());
+    }
+
+    @Test
+    public void copyIsNotAffectedByLaterChanges() {
+        gameConfig.setRows(16);
+        gameConfig.setCols(30);
+        gameConfig.setMineCount(99);
+        gameConfig.setNoGuess(true);
+
+        GameConfig copy = gameConfig.copy();
+        gameConfig.setRows(8);
+        gameConfig.setCols(8);
+        gameConfig.setMineCount(5);
+        gameConfig.setNoGuess(false);
+        copy.setStartTime(1_657_230_113_000L);
+
+        assertEquals(player, copy.getPlayer());
+        assertEquals(16, copy.getRows());
+        assertEquals(30, copy.getCols());
+        assertEquals(99, copy.getMineCount());
+        assertTrue(copy.isNoGuess());
+        assertEquals(0, gameConfig.getStartTime());
+    }
 }
@@ -0,0 +1,180 @@
+package hu.aestallon.minesweeper.game;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GameEngineTest {
+
+    private static final int testRowCount = 16;
+    private static final int testColCount = 16;
+    private static final int testMineCount = 40;
+    private static final long testSeed = 2022L;
+
+    private Minefield minefield;
+    private GameEngine engine;
+
+    @Before
+    public void setUp() {
+        minefield = new Minefield(testRowCount, testColCount, testMineCount, testSeed);
+        engine = new GameEngine(minefield);
+    }
+
+    @After
+    public void tearDown() {
+        minefield = null;
+        engine = null;
+    }
+
+    private int[] findCell(char value) {
+        for (int i = 0; i < testRowCount; i++) {
+            for (int j = 0; j < testColCount; j++) {
+                if (minefield.getCell(i, j) == value) return new int[]{i, j};
+            }
+        }
+        throw new AssertionError("Test board has no cell of value " + value);
+    }
+
+    @Test
+    public void newGameIsInProgress() {
+        assertEquals(GameEngine.Status.PLAYING, engine.getStatus());
+    }
+
+    @Test
+    public void firstRevealOfALazyBoardIsAlwaysSafe() {
+        for (int i = 0; i < 50; i++) {
+            GameEngine lazyEngine = new GameEngine(10, 10, 90);
+            lazyEngine.reveal(3, 3);
+            assertNotEquals(GameEngine.Status.LOST, lazyEngine.getStatus());
+            assertEquals('0', lazyEngine.getCell(3, 3));
+        }
+    }
+
+    @Test
+    public void revealingAMineLosesTheGameAndRevealsEveryMine() {
+        int[] mine = findCell(Minefield.MINE);
+        int[] changedCells = engine.reveal(mine[0], mine[1]);
+
+        assertEquals(GameEngine.Status.LOST, engine.getStatus());
+        assertEquals(testMineCount, changedCells.length);
+        for (int index : changedCells) {
+            assertTrue(minefield.isMine(index / testColCount, index % testColCount));
+        }
+    }
+
+    @Test
+    public void hiddenCountFollowsTheMoves() {
+        assertEquals(testRowCount * testColCount, engine.getHiddenCount());
+        int[] number = findCell('1');
+        engine.reveal(number[0], number[1]);
+        assertEquals(testRowCount * testColCount - 1, engine.getHiddenCount());
+
+        int[] mine = findCell(Minefield.MINE);
+        engine.reveal(mine[0], mine[1]);
+        assertEquals(testRowCount * testColCount - 1 - testMineCount, engine.getHiddenCount());
+    }
+
+    @Test
+    public void revealingEverySafeCellWinsTheGame() {
+        for (int i = 0; i < testRowCount; i++) {
+            for (int j = 0; j < testColCount; j++) {
+                if (!minefield.isMine(i, j)) engine.reveal(i, j);
+            }
+        }
+        assertEquals(GameEngine.Status.WON, engine.getStatus());
+    }
+
+    @Test
+    public void movesAfterTheEndOfTheGameChangeNothing() {
+        int[] mine = findCell(Minefield.MINE);
+        engine.reveal(mine[0], mine[1]);
+
+        int[] safeCell = findCell('1');
+        assertEquals(0, engine.reveal(safeCell[0], safeCell[1]).length);
+        assertEquals(0, engine.toggleFlag(safeCell[0], safeCell[1]).length);
+        assertFalse(engine.isRevealed(safeCell[0], safeCell[1]));
+    }
+
+    @Test
+    public void flaggedCellsCannotBeRevealedUntilTheFlagIsRemoved() {
+        int[] safeCell = findCell('1');
+        assertEquals(1, engine.toggleFlag(safeCell[0], safeCell[1]).length);
+        assertTrue(engine.isFlagged(safeCell[0], safeCell[1]));
+        assertEquals(0, engine.reveal(safeCell[0], safeCell[1]).length);
+
+        engine.toggleFlag(safeCell[0], safeCell[1]);
+        assertFalse(engine.isFlagged(safeCell[0], safeCell[1]));
+        assertEquals(1, engine.reveal(safeCell[0], safeCell[1]).length);
+    }
+
+    @Test
+    public void revealedCellsCannotBeFlagged() {
+        int[] safeCell = findCell('1');
+        engine.reveal(safeCell[0], safeCell[1]);
+        assertEquals(0, engine.toggleFlag(safeCell[0], safeCell[1]).length);
+        assertFalse(engine.isFlagged(safeCell[0], safeCell[1]));
+    }
+
+    @Test
+    public void chordingACorrectlyFlaggedCellRevealsItsOtherNeighbours() {
+        int[] cell = findCell('1');
+        int x = cell[0], y = cell[1];
+        engine.reveal(x, y);
+        forEachNeighbour(x, y, (i, j) -> {
+            if (minefield.isMine(i, j)) engine.toggleFlag(i, j);
+        });
+
+        engine.chord(x, y);
+
+        assertEquals(GameEngine.Status.PLAYING, engine.getStatus());
+        forEachNeighbour(x, y, (i, j) ->
+                assertEquals(!minefield.isMine(i, j), engine.isRevealed(i, j)));
+    }
+
+    @Test
+    public void chordingAWronglyFlaggedCellLosesTheGame() {
+        int[] cell = findCell('1');
+        int x = cell[0], y = cell[1];
+        engine.reveal(x, y);
+        int[] flagged = new int[1];
+        forEachNeighbour(x, y, (i, j) -> {
+            if (flagged[0] == 0 && !minefield.isMine(i, j)) {
+                engine.toggleFlag(i, j);
+                flagged[0]++;
+            }
+        });
+
+        engine.chord(x, y);
+
+        assertEquals(GameEngine.Status.LOST, engine.getStatus());
+    }
+
+    @Test
+    public void chordingWithTooFewFlagsRevealsNothing() {
+        int[] cell = findCell('1');
+        engine.reveal(cell[0], cell[1]);
+        assertEquals(0, engine.chord(cell[0], cell[1]).length);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void queryingTheValueOfAHiddenCell_yieldsException() {
+        engine.getCell(0, 0);
+    }
+
+    private interface CellConsumer {
+        void accept(int x, int y);
+    }
+
+    private static void forEachNeighbour(int x, int y, CellConsumer consumer) {
+        for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, testRowCount - 1); i++) {
+            for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, testColCount - 1); j++) {
+                if (i != x || j != y) consumer.accept(i, j);
+            }
+        }
+    }
+}
@@ -5,7 +5,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 public class MinefieldTest {
 
@@ -81,6 +83,263 @@ public class MinefieldTest {
         }
     }
 
+    @Test
+    public void hugeMinefieldSolvedInParallelHasCorrectNumbers() {
+        // Above the parallel threshold, with an odd column count to make
+        // row bands start in the middle of a packed byte:
+        final int rows = 1_025, cols = 1_025;
+        assertTrue(Minefield.isSolvedInParallel(rows, cols));
+        Minefield hugeMinefield = new Minefield(rows, cols, rows * cols / 5);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (!hugeMinefield.isMine(i, j)) {
+                    assertEquals(
+                            countOfMineNeighbours(hugeMinefield, i, j),
+                            toDigit(hugeMinefield.getCell(i, j))
+                    );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void oddSizedMinefieldContainsAsManyMinesAsTheInjectedIntoTheConstructor() {
+        final int rows = 7, cols = 9, mines = 20;
+        Minefield oddMinefield = new Minefield(rows, cols, mines);
+        int actualMineCount = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (oddMinefield.getCell(i, j) == Minefield.MINE) {
+                    assertTrue(oddMinefield.isMine(i, j));
+                    actualMineCount++;
+                }
+            }
+        }
+        assertEquals(mines, actualMineCount);
+    }
+
+    @Test
+    public void denseMinefieldWithASingleSafeCellIsGeneratedCorrectly() {
+        final int rows = 50, cols = 40;
+        Minefield denseMinefield = new Minefield(rows, cols, rows * cols - 1);
+        assertEquals(rows * cols - 1, countMines(denseMinefield));
+    }
+
+    @Test
+    public void minefieldCanBeCompletelyFilledWithMines() {
+        final int rows = 3, cols = 5;
+        Minefield fullMinefield = new Minefield(rows, cols, rows * cols);
+        assertEquals(rows * cols, countMines(fullMinefield));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void attemptingToPlaceMoreMinesThanCells_yieldsException() {
+        new Minefield(3, 3, 10);
+    }
+
+    @Test
+    public void minefieldsGeneratedFromTheSameSeedAreIdentical() {
+        Minefield replayed = new Minefield(testRowCount, testColCount, testMineCount, minefield.getSeed());
+        assertEquals(minefield.getSeed(), replayed.getSeed());
+        for (int i = 0; i < testRowCount; i++) {
+            for (int j = 0; j < testColCount; j++) {
+                assertEquals(minefield.getCell(i, j), replayed.getCell(i, j));
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void queryingALazyMinefieldBeforePlacingTheMines_yieldsException() {
+        Minefield lazyMinefield = Minefield.lazy(testRowCount, testColCount, testMineCount);
+        assertFalse(lazyMinefield.areMinesPlaced());
+        lazyMinefield.getCell(0, 0);
+    }
+
+    @Test
+    public void lazyMinefieldKeepsTheFirstCellAndItsNeighboursSafe() {
+        final int rows = 10, cols = 10, mines = 91;
+        Minefield lazyMinefield = Minefield.lazy(rows, cols, mines);
+        lazyMinefield.placeMines(4, 5, true);
+
+        assertTrue(lazyMinefield.areMinesPlaced());
+        assertEquals('0', lazyMinefield.getCell(4, 5));
+        assertEquals(mines, countMines(lazyMinefield));
+    }
+
+    @Test
+    public void lazyMinefieldWithoutRoomForASafeNeighbourhoodKeepsTheFirstCellSafe() {
+        final int rows = 10, cols = 10, mines = rows * cols - 1;
+        Minefield lazyMinefield = Minefield.lazy(rows, cols, mines);
+        lazyMinefield.placeMines(0, 9, true);
+
+        assertFalse(lazyMinefield.isMine(0, 9));
+        assertEquals(mines, countMines(lazyMinefield));
+    }
+
+    @Test
+    public void lazyMinefieldsWithTheSameSeedAndFirstCellAreIdentical() {
+        Minefield first = Minefield.lazy(testRowCount, testColCount, testMineCount, 42L);
+        Minefield second = Minefield.lazy(testRowCount, testColCount, testMineCount, 42L);
+        first.placeMines(7, 11, false);
+        second.placeMines(7, 11, false);
+        for (int i = 0; i < testRowCount; i++) {
+            for (int j = 0; j < testColCount; j++) {
+                assertEquals(first.getCell(i, j), second.getCell(i, j));
+            }
+        }
+    }
+
+    @Test
+    public void resetMinefieldIsIdenticalToANewLazyMinefieldOfTheSameSeed() {
+        Minefield reused = Minefield.lazy(testRowCount, testColCount, testMineCount, 1L);
+        reused.placeMines(0, 0, true);
+        reused.reveal(0, 0);
+        reused.setFlagged(testRowCount - 1, testColCount - 1, true);
+        reused.reset(42L);
+        assertFalse(reused.areMinesPlaced());
+        assertFalse(reused.isFlagged(testRowCount - 1, testColCount - 1));
+        assertEquals(42L, reused.getSeed());
+        assertEquals(testRowCount * testColCount - testMineCount, reused.getHiddenSafeCellCount());
+
+        Minefield fresh = Minefield.lazy(testRowCount, testColCount, testMineCount, 42L);
+        reused.placeMines(7, 11, true);
+        fresh.placeMines(7, 11, true);
+        for (int i = 0; i < testRowCount; i++) {
+            for (int j = 0; j < testColCount; j++) {
+                assertFalse(reused.isRevealed(i, j));
+                assertEquals(fresh.getCell(i, j), reused.getCell(i, j));
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void placingTheMinesTwice_yieldsException() {
+        minefield.placeMines(0, 0, true);
+    }
+
+    @Test
+    public void newMinefieldHasNoRevealedOrFlaggedCells() {
+        for (int i = 0; i < testRowCount; i++) {
+            for (int j = 0; j < testColCount; j++) {
+                assertFalse(minefield.isRevealed(i, j));
+                assertFalse(minefield.isFlagged(i, j));
+            }
+        }
+    }
+
+    @Test
+    public void revealingAndFlaggingCellsOnlyAffectsTheGivenCell() {
+        minefield.setRevealed(3, 4);
+        minefield.setFlagged(3, 5, true);
+
+        assertTrue(minefield.isRevealed(3, 4));
+        assertFalse(minefield.isFlagged(3, 4));
+        assertTrue(minefield.isFlagged(3, 5));
+        assertFalse(minefield.isRevealed(3, 5));
+
+        minefield.setFlagged(3, 5, false);
+        assertFalse(minefield.isFlagged(3, 5));
+    }
+
+    @Test
+    public void revealingACellOfAHugeEmptyMinefieldRevealsEveryCell() {
+        final int rows = 2_000, cols = 2_000;
+        Minefield emptyMinefield = new Minefield(rows, cols, 0);
+
+        int[] revealedCells = emptyMinefield.reveal(rows / 2, cols / 2);
+
+        assertEquals(rows * cols, revealedCells.length);
+        assertEquals(emptyMinefield.toIndex(rows / 2, cols / 2), revealedCells[0]);
+        assertTrue(emptyMinefield.isRevealed(0, 0));
+        assertTrue(emptyMinefield.isRevealed(rows - 1, cols - 1));
+    }
+
+    @Test
+    public void revealingAnEmptyRegionRevealsItsBorderButNoMines() {
+        search:
+        for (int i = 0; i < testRowCount; i++) {
+            for (int j = 0; j < testColCount; j++) {
+                if (minefield.getCell(i, j) == '0') {
+                    minefield.reveal(i, j);
+                    break search;
+                }
+            }
+        }
+        for (int i = 0; i < testRowCount; i++) {
+            for (int j = 0; j < testColCount; j++) {
+                if (minefield.isRevealed(i, j)) {
+                    assertFalse(minefield.isMine(i, j));
+                } else if (minefield.getCell(i, j) != Minefield.MINE) {
+                    assertFalse(hasRevealedZeroNeighbour(minefield, i, j));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void revealingAFlaggedOrRevealedCellRevealsNothing() {
+        Minefield emptyMinefield = new Minefield(5, 5, 0);
+        emptyMinefield.setFlagged(0, 0, true);
+        assertEquals(0, emptyMinefield.reveal(0, 0).length);
+
+        assertEquals(24, emptyMinefield.reveal(4, 4).length);
+        assertFalse(emptyMinefield.isRevealed(0, 0));
+        assertEquals(0, emptyMinefield.reveal(4, 4).length);
+    }
+
+    @Test
+    public void newMinefieldHasEverySafeCellHidden() {
+        assertEquals(testRowCount * testColCount - testMineCount, minefield.getHiddenSafeCellCount());
+        assertFalse(minefield.isCleared());
+    }
+
+    @Test
+    public void revealingEverySafeCellClearsTheMinefield() {
+        for (int i = 0; i < testRowCount; i++) {
+            for (int j = 0; j < testColCount; j++) {
+                if (!minefield.isMine(i, j)) {
+                    int hiddenBefore = minefield.getHiddenSafeCellCount();
+                    int revealedCount = minefield.reveal(i, j).length;
+                    assertEquals(hiddenBefore - revealedCount, minefield.getHiddenSafeCellCount());
+                }
+            }
+        }
+        assertTrue(minefield.isCleared());
+    }
+
+    @Test
+    public void revealingAMineDoesNotChangeTheHiddenSafeCellCount() {
+        Minefield fullMinefield = new Minefield(3, 3, 8, 0L);
+        int hiddenBefore = fullMinefield.getHiddenSafeCellCount();
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                if (fullMinefield.isMine(i, j)) {
+                    fullMinefield.reveal(i, j);
+                    assertEquals(hiddenBefore, fullMinefield.getHiddenSafeCellCount());
+                }
+            }
+        }
+    }
+
+    private static boolean hasRevealedZeroNeighbour(Minefield mf, int x, int y) {
+        for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, mf.getRows() - 1); i++) {
+            for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, mf.getCols() - 1); j++) {
+                if (mf.isRevealed(i, j) && mf.getCell(i, j) == '0') return true;
+            }
+        }
+        return false;
+    }
+
+    private static int countMines(Minefield mf) {
+        int mineCount = 0;
+        for (int i = 0; i < mf.getRows(); i++) {
+            for (int j = 0; j < mf.getCols(); j++) {
+                if (mf.isMine(i, j)) mineCount++;
+            }
+        }
+        return mineCount;
+    }
+
     private static boolean isDigit(char ch) {
         // ch1 - ch2 returns the integer associated with the
         // characters' Unicode table value:
@@ -100,9 +359,9 @@ public class MinefieldTest {
                 int yPos = y + deltaY;
                 if (!(xPos == x && yPos == y) &&
                         xPos >= 0 &&
-                        xPos < testRowCount &&
+                        xPos < mf.getRows() &&
                         yPos >= 0 &&
-                        yPos < testColCount) {
+                        yPos < mf.getCols()) {
                     if (mf.getCell(xPos, yPos) == Minefield.MINE) {
                         mineNeighbourCount++;
                     }
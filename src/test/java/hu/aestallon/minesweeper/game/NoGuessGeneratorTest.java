@@ -0,0 +1,105 @@
+package hu.aestallon.minesweeper.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NoGuessGeneratorTest {
+
+    private static final int testRowCount = GameConfig.LARGE;
+    private static final int testColCount = GameConfig.LARGE;
+    private static final int testMineCount = GameConfig.LARGE_MINE_COUNT;
+    private static final int testBoardCount = 20;
+    private static final NoGuessGenerator generator = new NoGuessGenerator(4, 10_000);
+
+    @Test
+    public void generatedBoardsAreSolvableWithoutGuessing() {
+        for (int i = 0; i < testBoardCount; i++) {
+            int x = i % testRowCount, y = (7 * i) % testColCount;
+            NoGuessGenerator.Generation generation =
+                    generator.generate(testRowCount, testColCount, testMineCount, x, y);
+            assertTrue(generation.guessFree());
+            long seed = generation.minefield().getSeed();
+            assertTrue(NoGuessGenerator.isSolvable(testRowCount, testColCount, testMineCount, seed, x, y));
+        }
+    }
+
+    @Test
+    public void generatedBoardsAreUnrevealedWithASafeNeighbourhood() {
+        Minefield minefield = generator.generate(testRowCount, testColCount, testMineCount, 0, 5).minefield();
+        assertTrue(minefield.areMinesPlaced());
+        assertEquals(testMineCount, minefield.getMineCount());
+        assertEquals(testRowCount * testColCount - testMineCount, minefield.getHiddenSafeCellCount());
+        for (int i = 0; i <= 1; i++) {
+            for (int j = 4; j <= 6; j++) {
+                assertFalse(minefield.isMine(i, j));
+            }
+        }
+    }
+
+    @Test
+    public void generationFallsBackToARegularBoardWithoutTime() {
+        NoGuessGenerator impatientGenerator = new NoGuessGenerator(1, 0);
+        NoGuessGenerator.Generation generation =
+                impatientGenerator.generate(testRowCount, testColCount, testMineCount, 8, 8);
+        assertFalse(generation.guessFree());
+        assertTrue(generation.minefield().areMinesPlaced());
+        assertEquals('0', generation.minefield().getCell(8, 8));
+    }
+
+    @Test
+    public void boardsLargerThanTheLimitAreRegularBoards() {
+        int rows = 2, cols = NoGuessGenerator.MAX_CELL_COUNT / 2 + 1;
+        NoGuessGenerator.Generation generation = generator.generate(rows, cols, 10, 0, 0);
+        assertFalse(generation.guessFree());
+        assertTrue(generation.minefield().areMinesPlaced());
+        assertEquals('0', generation.minefield().getCell(0, 0));
+    }
+
+    @Test
+    public void gameEngineTellsWhenItFallsBackToARegularBoard() {
+        GameEngine engine = new GameEngine(testRowCount, testColCount, testMineCount, new NoGuessGenerator(1, 0));
+        assertFalse(engine.isFallbackBoard());
+        engine.reveal(8, 8);
+        assertTrue(engine.isFallbackBoard());
+    }
+
+    @Test
+    public void gameEngineGeneratesTheBoardUponTheFirstReveal() {
+        GameEngine engine = new GameEngine(testRowCount, testColCount, testMineCount, generator);
+        engine.toggleFlag(0, 0);
+        engine.reveal(8, 8);
+        assertTrue(engine.isFlagged(0, 0));
+        assertEquals('0', engine.getCell(8, 8));
+        assertFalse(engine.isFallbackBoard());
+        // The board can be regenerated from its seed:
+        assertTrue(NoGuessGenerator.isSolvable(testRowCount, testColCount, testMineCount, engine.getSeed(), 8, 8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void creatingAGeneratorWithoutThreadsYieldsAnException() {
+        new NoGuessGenerator(0, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void creatingAGeneratorWithANegativeTimeBudgetYieldsAnException() {
+        new NoGuessGenerator(1, -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void generatingABoardWithTooManyMinesYieldsAnException() {
+        generator.generate(4, 4, 16, 0, 0);
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void generatingABoardFromAnOutOfBoundsCellYieldsAnException() {
+        generator.generate(testRowCount, testColCount, testMineCount, testRowCount, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void creatingAGameWithoutAGeneratorYieldsAnException() {
+        new GameEngine(testRowCount, testColCount, testMineCount, null);
+    }
+}
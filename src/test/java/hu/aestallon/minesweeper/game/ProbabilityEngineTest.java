@@ -0,0 +1,167 @@
+package hu.aestallon.minesweeper.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ProbabilityEngineTest {
+
+    private static final double tolerance = 1e-9;
+    private static final int testGameCount = 50;
+
+    /**
+     * Plays seeded games by revealing random safe cells, calling the
+     * check before every move.
+     */
+    private static void playGames(int rows, int cols, int mineCount, SeededGames.Check<ProbabilityEngine> check) {
+        SeededGames.play(rows, cols, mineCount, testGameCount, ProbabilityEngine::new, ProbabilityEngine::update,
+                SeededGames::randomSafeCell, check);
+    }
+
+    /**
+     * Computes the probabilities by trying every placement of the mines
+     * in the hidden cells.
+     */
+    private static double[] bruteForce(GameEngine engine) {
+        int rows = engine.getRows(), cols = engine.getCols();
+        int cellCount = rows * cols;
+        int[] hidden = new int[cellCount];
+        int hiddenCount = 0;
+        for (int i = 0; i < cellCount; i++) {
+            if (!engine.isRevealed(i / cols, i % cols)) hidden[hiddenCount++] = i;
+        }
+        double[] mineCounts = new double[cellCount];
+        long[] total = {0};
+        boolean[] mines = new boolean[cellCount];
+        place(engine, hidden, hiddenCount, 0, engine.getMineCount(), mines, mineCounts, total);
+        for (int i = 0; i < cellCount; i++) mineCounts[i] /= total[0];
+        return mineCounts;
+    }
+
+    private static void place(GameEngine engine, int[] hidden, int hiddenCount, int from, int left,
+                              boolean[] mines, double[] mineCounts, long[] total) {
+        if (left == 0) {
+            if (!isConsistent(engine, mines)) return;
+            total[0]++;
+            for (int i = 0; i < mines.length; i++) {
+                if (mines[i]) mineCounts[i]++;
+            }
+            return;
+        }
+        for (int h = from; h <= hiddenCount - left; h++) {
+            mines[hidden[h]] = true;
+            place(engine, hidden, hiddenCount, h + 1, left - 1, mines, mineCounts, total);
+            mines[hidden[h]] = false;
+        }
+    }
+
+    private static boolean isConsistent(GameEngine engine, boolean[] mines) {
+        int rows = engine.getRows(), cols = engine.getCols();
+        for (int x = 0; x < rows; x++) {
+            for (int y = 0; y < cols; y++) {
+                if (!engine.isRevealed(x, y)) continue;
+                int count = 0;
+                for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, rows - 1); i++) {
+                    for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, cols - 1); j++) {
+                        if (mines[i * cols + j]) count++;
+                    }
+                }
+                if (count != engine.getCell(x, y) - '0') return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    public void probabilitiesMatchTheEnumerationOfEveryPlacement() {
+        playGames(5, 6, 6, (minefield, engine, probabilityEngine) -> {
+            int hiddenCount = 0;
+            for (int i = 0; i < 5 * 6; i++) {
+                if (!engine.isRevealed(i / 6, i % 6)) hiddenCount++;
+            }
+            // Keeps the number of placements to try reasonable:
+            if (hiddenCount > 18) return;
+            double[] expected = bruteForce(engine);
+            ProbabilityEngine.Probabilities actual = probabilityEngine.computeProbabilities();
+            for (int i = 0; i < expected.length; i++) {
+                if (!engine.isRevealed(i / 6, i % 6)) assertEquals(expected[i], actual.of(i), tolerance);
+            }
+        });
+    }
+
+    @Test
+    public void probabilitiesAddUpToTheMineCount() {
+        playGames(16, 16, 40, (minefield, engine, probabilityEngine) -> {
+            ProbabilityEngine.Probabilities probabilities = probabilityEngine.computeProbabilities();
+            double sum = 0;
+            for (int i = 0; i < 16 * 16; i++) {
+                if (!engine.isRevealed(i / 16, i % 16)) sum += probabilities.of(i);
+            }
+            assertEquals(40, sum, 1e-6);
+        });
+    }
+
+    @Test
+    public void deducedCellsHaveCertainProbabilities() {
+        playGames(16, 16, 40, (minefield, engine, probabilityEngine) -> {
+            Solver solver = new Solver(engine);
+            int[] everyCell = new int[16 * 16];
+            for (int i = 0; i < everyCell.length; i++) everyCell[i] = i;
+            solver.update(everyCell);
+            solver.nextSafeMove();
+            ProbabilityEngine.Probabilities probabilities = probabilityEngine.computeProbabilities();
+            for (int i = 0; i < everyCell.length; i++) {
+                if (solver.isKnownSafe(i)) assertEquals(0, probabilities.of(i), tolerance);
+                if (solver.isKnownMine(i)) assertEquals(1, probabilities.of(i), tolerance);
+            }
+        });
+    }
+
+    @Test
+    public void bestGuessIsHiddenAndUnflagged() {
+        playGames(16, 16, 40, (minefield, engine, probabilityEngine) -> {
+            ProbabilityEngine.Probabilities probabilities = probabilityEngine.computeProbabilities();
+            int guess = probabilityEngine.bestGuess(probabilities);
+            assertFalse(engine.isRevealed(guess / 16, guess % 16));
+            for (int i = 0; i < 16 * 16; i++) {
+                if (!engine.isRevealed(i / 16, i % 16)) {
+                    assertTrue(probabilities.of(guess) <= probabilities.of(i));
+                }
+            }
+            engine.toggleFlag(guess / 16, guess % 16);
+            int nextGuess = probabilityEngine.bestGuess(probabilities);
+            assertTrue(nextGuess != guess);
+            engine.toggleFlag(guess / 16, guess % 16);
+        });
+    }
+
+    @Test
+    public void engineCreatedDuringTheGameCollectsTheSameFrontier() {
+        playGames(16, 16, 40, (minefield, engine, probabilityEngine) -> {
+            ProbabilityEngine.Probabilities expected = probabilityEngine.computeProbabilities();
+            ProbabilityEngine.Probabilities actual = new ProbabilityEngine(engine).computeProbabilities();
+            assertEquals(expected.getFrontierSize(), actual.getFrontierSize());
+            assertEquals(expected.getInteriorProbability(), actual.getInteriorProbability(), tolerance);
+            for (int i = 0; i < 16 * 16; i++) {
+                if (!engine.isRevealed(i / 16, i % 16)) assertEquals(expected.of(i), actual.of(i), tolerance);
+            }
+        });
+    }
+
+    @Test
+    public void everyCellIsEquallyLikelyBeforeTheFirstMove() {
+        GameEngine engine = new GameEngine(10, 10, 10);
+        ProbabilityEngine.Probabilities probabilities = new ProbabilityEngine(engine).computeProbabilities();
+        assertEquals(0, probabilities.getFrontierSize());
+        for (int i = 0; i < 10 * 10; i++) {
+            assertEquals(0.1, probabilities.of(i), tolerance);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void creatingAProbabilityEngineWithoutAGameYieldsAnException() {
+        new ProbabilityEngine(null);
+    }
+}
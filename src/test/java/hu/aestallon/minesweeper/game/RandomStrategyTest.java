@@ -0,0 +1,30 @@
+package hu.aestallon.minesweeper.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RandomStrategyTest {
+
+    private static final int testRowCount = 16;
+    private static final int testColCount = 16;
+    private static final int testMineCount = 40;
+
+    @Test
+    public void onlyHiddenCellsAreChosen() {
+        for (long seed = 0; seed < 100; seed++) {
+            GameEngine engine = new GameEngine(Minefield.lazy(testRowCount, testColCount, testMineCount, seed));
+            Strategy strategy = new RandomStrategy(seed);
+            int[] changed = new int[0];
+            while (engine.getStatus() == GameEngine.Status.PLAYING) {
+                int move = strategy.nextMove(engine, changed);
+                assertFalse(engine.isRevealed(move / testColCount, move % testColCount));
+                changed = engine.reveal(move / testColCount, move % testColCount);
+                assertTrue(changed.length > 0);
+            }
+            assertNotEquals(GameEngine.Status.PLAYING, engine.getStatus());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package hu.aestallon.minesweeper.game;
+
+import java.util.SplittableRandom;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Plays seeded games on lazy boards for the tests of the classes
+ * following a game move by move, such as {@link Solver} and
+ * {@link ProbabilityEngine}.
+ */
+final class SeededGames {
+
+    /** Checks the state of a game and its tracker before a move. */
+    interface Check<T> {
+        void check(Minefield minefield, GameEngine engine, T tracker);
+    }
+
+    /** Chooses the next cell to reveal. */
+    interface Strategy<T> {
+        int nextMove(Minefield minefield, GameEngine engine, T tracker, SplittableRandom random);
+    }
+
+    private SeededGames() {
+    }
+
+    /**
+     * Plays the games of seeds {@code 0} to {@code gameCount - 1}, every
+     * one of them starting with the centre of the board. A tracker is
+     * created for every game, and updated with the cells changed by
+     * every move. The check is called before every move but the first.
+     *
+     * @return the number of games won
+     */
+    static <T> int play(int rows, int cols, int mineCount, int gameCount,
+                        Function<GameEngine, T> trackers, BiConsumer<T, int[]> update,
+                        Strategy<T> strategy, Check<T> check) {
+        int wins = 0;
+        for (long seed = 0; seed < gameCount; seed++) {
+            Minefield minefield = Minefield.lazy(rows, cols, mineCount, seed);
+            GameEngine engine = new GameEngine(minefield);
+            T tracker = trackers.apply(engine);
+            SplittableRandom random = new SplittableRandom(seed);
+            update.accept(tracker, engine.reveal(rows / 2, cols / 2));
+            while (engine.getStatus() == GameEngine.Status.PLAYING) {
+                check.check(minefield, engine, tracker);
+                int move = strategy.nextMove(minefield, engine, tracker, random);
+                update.accept(tracker, engine.reveal(move / cols, move % cols));
+            }
+            if (engine.getStatus() == GameEngine.Status.WON) wins++;
+        }
+        return wins;
+    }
+
+    /** Chooses a random hidden cell which is not a mine. */
+    static int randomSafeCell(Minefield minefield, GameEngine engine, Object tracker, SplittableRandom random) {
+        int cols = engine.getCols();
+        int move;
+        do {
+            move = random.nextInt(engine.getRows() * cols);
+        } while (engine.isRevealed(move / cols, move % cols) || minefield.isMine(move / cols, move % cols));
+        return move;
+    }
+}
@@ -0,0 +1,126 @@
+package hu.aestallon.minesweeper.game;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SolverTest {
+
+    private static final int testRowCount = 16;
+    private static final int testColCount = 16;
+    private static final int testMineCount = 40;
+    private static final int testGameCount = 200;
+
+    /**
+     * Plays seeded games with the solver, revealing the deduced safe
+     * cells, and guessing the first hidden cell not known to be a mine
+     * otherwise, calling the check after every move.
+     *
+     * @return the number of games won
+     */
+    private static int playGames(int rows, int cols, int mineCount, SeededGames.Check<Solver> check) {
+        return SeededGames.play(rows, cols, mineCount, testGameCount, Solver::new, Solver::update,
+                SolverTest::solvingMove, check);
+    }
+
+    private static int solvingMove(Minefield minefield, GameEngine engine, Solver solver, SplittableRandom random) {
+        int move = solver.nextSafeMove();
+        if (move < 0) {
+            int cols = engine.getCols();
+            move = 0;
+            while (engine.isRevealed(move / cols, move % cols) || solver.isKnownMine(move)) move++;
+        }
+        return move;
+    }
+
+    @Test
+    public void everyDeductionIsCorrect() {
+        playGames(testRowCount, testColCount, testMineCount, (minefield, engine, solver) -> {
+            int move = solver.nextSafeMove();
+            if (move >= 0) {
+                assertFalse(minefield.isMine(move / testColCount, move % testColCount));
+            }
+            for (int i = 0; i < testRowCount * testColCount; i++) {
+                boolean mine = minefield.isMine(i / testColCount, i % testColCount);
+                if (solver.isKnownMine(i)) assertTrue(mine);
+                if (solver.isKnownSafe(i)) assertFalse(mine);
+            }
+        });
+    }
+
+    @Test
+    public void frontierIsTrackedIncrementally() {
+        playGames(testRowCount, testColCount, testMineCount, (minefield, engine, solver) -> {
+            int expectedFrontierSize = 0;
+            for (int x = 0; x < testRowCount; x++) {
+                for (int y = 0; y < testColCount; y++) {
+                    if (engine.isRevealed(x, y) && hasUnknownNeighbour(engine, solver, x, y)) {
+                        expectedFrontierSize++;
+                    }
+                }
+            }
+            assertEquals(expectedFrontierSize, solver.getFrontierSize());
+        });
+    }
+
+    private static boolean hasUnknownNeighbour(GameEngine engine, Solver solver, int x, int y) {
+        for (int i = Math.max(x - 1, 0); i <= Math.min(x + 1, testRowCount - 1); i++) {
+            for (int j = Math.max(y - 1, 0); j <= Math.min(y + 1, testColCount - 1); j++) {
+                int index = i * testColCount + j;
+                if (!engine.isRevealed(i, j) && !solver.isKnownMine(index) && !solver.isKnownSafe(index)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void easyBoardsAreMostlySolvedWithoutLosing() {
+        int wins = playGames(GameConfig.SMALL, GameConfig.SMALL, GameConfig.SMALL_MINE_COUNT,
+                (minefield, engine, solver) -> {});
+        assertTrue(wins > testGameCount * 9 / 10);
+    }
+
+    @Test
+    public void knownMinesAreNeverSuggested() {
+        playGames(testRowCount, testColCount, testMineCount, (minefield, engine, solver) -> {
+            int move = solver.nextSafeMove();
+            if (move >= 0) {
+                assertFalse(solver.isKnownMine(move));
+                assertFalse(engine.isRevealed(move / testColCount, move % testColCount));
+            }
+        });
+    }
+
+    @Test
+    public void resetSolverDeducesLikeANewOne() {
+        GameEngine previous = new GameEngine(Minefield.lazy(testRowCount, testColCount, testMineCount, 1L));
+        Solver reused = new Solver(previous);
+        reused.update(previous.reveal(0, 0));
+        reused.nextSafeMove();
+
+        GameEngine engine = new GameEngine(Minefield.lazy(testRowCount, testColCount, testMineCount, 2L));
+        reused.reset(engine);
+        assertEquals(0, reused.getFrontierSize());
+        int[] changed = engine.reveal(testRowCount / 2, testColCount / 2);
+        reused.update(changed);
+        Solver fresh = new Solver(engine);
+        fresh.update(changed);
+        assertEquals(fresh.nextSafeMove(), reused.nextSafeMove());
+        assertEquals(fresh.getFrontierSize(), reused.getFrontierSize());
+        for (int i = 0; i < testRowCount * testColCount; i++) {
+            assertEquals(fresh.isKnownMine(i), reused.isKnownMine(i));
+            assertEquals(fresh.isKnownSafe(i), reused.isKnownSafe(i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void creatingASolverWithoutAGameYieldsAnException() {
+        new Solver(null);
+    }
+}
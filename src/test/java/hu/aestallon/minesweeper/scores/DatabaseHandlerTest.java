@@ -8,6 +8,7 @@ import java.util.Comparator;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class DatabaseHandlerTest {
 
@@ -37,19 +38,10 @@ public class DatabaseHandlerTest {
 
     @Before
     public void setUp() throws Exception {
-        // Before tests make sure the table exists in the database (this is to
-        // simulate initialization logic performed by the singleton upon first
-        // instance acquisition):
-        final String createTableSql = """
-                CREATE TABLE IF NOT EXISTS scores(
-                    id      integer         PRIMARY KEY,
-                    player  varchar(255)    NOT NULL,
-                    score   integer         NOT NULL
-                );""";
-        try (Connection connection = getConnection()) {
-            Statement statement = connection.createStatement();
-            statement.execute(createTableSql);
-        }
+        // Before tests make sure the table exists in the database with its
+        // latest schema (this is the initialization logic performed by the
+        // singleton upon first instance acquisition):
+        databaseHandler.initDatabase();
     }
 
     @After
@@ -64,6 +56,7 @@ public class DatabaseHandlerTest {
 
     @AfterClass
     public static void afterClass() {
+        databaseHandler.close();
         databaseHandler = null;
         File testDatabase = new File(testDirectory + testDatabaseName);
         if (testDatabase.exists()) {
@@ -101,6 +94,29 @@ public class DatabaseHandlerTest {
         assertEquals(1, countRecords());
     }
 
+    @Test
+    public void batchInsertStoresEveryScoreOfTheBatch() {
+        List<DatabaseHandler.Score> batch = List.of(
+                new DatabaseHandler.Score("player1", 10),
+                new DatabaseHandler.Score("player2", 30),
+                new DatabaseHandler.Score("PLAYER1", 20)
+        );
+        assertEquals(3, databaseHandler.insertScores(batch));
+        assertEquals(3, countRecords());
+        assertEquals(List.of(10, 20), databaseHandler.getPlayerScoresOrdered("player1"));
+    }
+
+    @Test
+    public void databaseIsUsedInWriteAheadLoggingMode() throws Exception {
+        databaseHandler.insertScore("test", 1);
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA journal_mode;")) {
+            assertTrue(rs.next());
+            assertEquals("wal", rs.getString(1));
+        }
+    }
+
     @Test
     public void databaseWithTwoPlayersRetrievesHighestPersonalScoresForEachCorrectly() {
         // Given
@@ -127,6 +143,23 @@ public class DatabaseHandlerTest {
         }
     }
 
+    @Test
+    public void playerWithoutScoresHasEmptyStats() {
+        assertEquals(new DatabaseHandler.PlayerStats(0, 0, 0), databaseHandler.getPlayerStats("nobody"));
+    }
+
+    @Test
+    public void playerStatsAggregateTheScoresOfThePlayerOnly() {
+        final String playername = "test";
+        List.of(15, 4, 67, 43, 95).forEach(s -> databaseHandler.insertScore(playername, s));
+        databaseHandler.insertScore("other", 1_000);
+
+        DatabaseHandler.PlayerStats stats = databaseHandler.getPlayerStats(playername.toUpperCase());
+        assertEquals(95, stats.best());
+        assertEquals(5, stats.count());
+        assertEquals(44.8, stats.average(), 1e-9);
+    }
+
     @Test
     public void emptyDbHasHighestScoreOfZero() {
         assertEquals(0, databaseHandler.getHighestScore());
@@ -161,6 +194,85 @@ public class DatabaseHandlerTest {
         assertEquals(10, databaseHandler.getTopTenScores().size());
     }
 
+    @Test
+    public void detailsOfTheGameAreStoredAlongWithTheScore() {
+        DatabaseHandler.Score score = new DatabaseHandler.Score(
+                "test", 1_234, 16, 30, 99, 61_234_567_890L, 1_660_000_000_000L, -42L);
+        databaseHandler.insertScore(score);
+        assertEquals(List.of(score), databaseHandler.getTopTenScores());
+    }
+
+    @Test
+    public void topScoresOfAConfigurationOnlyContainScoresOfThatConfiguration() {
+        databaseHandler.insertScores(List.of(
+                new DatabaseHandler.Score("small", 300, 8, 8, 5, 1L, 1L, 1L),
+                new DatabaseHandler.Score("large", 100, 16, 16, 55, 1L, 1L, 1L),
+                new DatabaseHandler.Score("large", 200, 16, 16, 55, 1L, 1L, 1L),
+                new DatabaseHandler.Score("large", 150, 16, 16, 55, 1L, 1L, 1L),
+                new DatabaseHandler.Score("legacy", 1_000)
+        ));
+        List<Integer> topScores = databaseHandler.getTopScores(16, 16, 55, 2).stream()
+                .map(DatabaseHandler.Score::score)
+                .toList();
+        assertEquals(List.of(200, 150), topScores);
+    }
+
+    @Test
+    public void playerScoresAreLookedUpCaseInsensitively() {
+        databaseHandler.insertScore("Test", 10);
+        databaseHandler.insertScore("TEST", 20);
+        assertEquals(List.of(10, 20), databaseHandler.getPlayerScoresOrdered("test"));
+    }
+
+    @Test
+    public void legacyDatabaseIsMigratedToTheLatestSchema() throws Exception {
+        final String legacyDatabaseName = "/testLegacyMinesweeper.db";
+        File legacyDatabase = new File(testDirectory + legacyDatabaseName);
+        try (Connection conn = DriverManager.getConnection(testDatabaseHeader + testDirectory + legacyDatabaseName);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                    CREATE TABLE scores(
+                        id      integer         PRIMARY KEY,
+                        player  varchar(255)    NOT NULL,
+                        score   integer         NOT NULL
+                    );""");
+            stmt.execute("INSERT INTO scores (player, score) VALUES ('Legacy', 42);");
+        }
+
+        DatabaseHandler legacyHandler = DatabaseHandler.getCustomInstance(
+                testDatabaseHeader,
+                testDirectory,
+                legacyDatabaseName
+        );
+        try {
+            legacyHandler.initDatabase();
+            assertEquals(List.of(42), legacyHandler.getPlayerScoresOrdered("LEGACY"));
+            // The details of legacy scores are unknown:
+            assertEquals(
+                    List.of(new DatabaseHandler.Score("Legacy", 42)),
+                    legacyHandler.getTopTenScores()
+            );
+            assertTrue(legacyHandler.getSchemaVersion() > 0);
+
+            // Initializing an up-to-date database again changes nothing:
+            int schemaVersion = legacyHandler.getSchemaVersion();
+            legacyHandler.initDatabase();
+            assertEquals(schemaVersion, legacyHandler.getSchemaVersion());
+        } finally {
+            legacyHandler.close();
+            legacyDatabase.delete();
+        }
+    }
+
+    @Test
+    public void handlerReconnectsWhenUsedAfterBeingClosed() {
+        databaseHandler.insertScore("test", 10);
+        databaseHandler.close();
+        databaseHandler.insertScore("test", 20);
+        assertEquals(20, databaseHandler.getHighestScore());
+        assertEquals(2, countRecords());
+    }
+
     @Test
     public void insertingTheExactSameResultTwice_correctlyGetsSavedTwice() {
         final String playername = "test";
@@ -0,0 +1,116 @@
+package hu.aestallon.minesweeper.scores;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class LeaderboardTest {
+
+    private static final String playerName = "Player";
+
+    @Mock
+    private final DatabaseHandler dbHandler = Mockito.mock(DatabaseHandler.class);
+    @Mock
+    private final ScoreWriter scoreWriter = Mockito.mock(ScoreWriter.class);
+
+    private List<DatabaseHandler.Score> storedTopScores;
+    private Leaderboard leaderboard;
+
+    @Before
+    public void setUp() {
+        // Ten scores of 1_000, 2_000, ..., 10_000 in descending order:
+        storedTopScores = new ArrayList<>();
+        for (int i = Leaderboard.TOP_SIZE; i > 0; i--) {
+            storedTopScores.add(new DatabaseHandler.Score("Player" + i, i * 1_000));
+        }
+        Mockito.when(dbHandler.getTopTenScores()).thenReturn(storedTopScores);
+        Mockito.when(dbHandler.getHighestScore()).thenReturn(10_000);
+        Mockito.when(dbHandler.getPlayerStats(Mockito.anyString()))
+                .thenReturn(new DatabaseHandler.PlayerStats(500, 3, 300));
+        leaderboard = new Leaderboard(dbHandler, scoreWriter);
+    }
+
+    @After
+    public void tearDown() {
+        leaderboard = null;
+    }
+
+    @Test
+    public void scoresAreLoadedFromTheDatabaseUponCreation() {
+        assertEquals(10_000, leaderboard.getHighestScore());
+        assertEquals(storedTopScores, leaderboard.getTopScores());
+    }
+
+    @Test
+    public void queriesAreServedWithoutFurtherDatabaseAccess() {
+        leaderboard.getHighestScore();
+        leaderboard.getTopScores();
+        Mockito.verify(dbHandler, Mockito.times(1)).getHighestScore();
+        Mockito.verify(dbHandler, Mockito.times(1)).getTopTenScores();
+    }
+
+    @Test
+    public void personalBestsAreLoadedOnlyOncePerPlayer() {
+        assertEquals(500, leaderboard.getPersonalBest(playerName));
+        assertEquals(500, leaderboard.getPersonalBest(playerName.toUpperCase()));
+        Mockito.verify(dbHandler, Mockito.times(1)).getPlayerStats(Mockito.anyString());
+    }
+
+    @Test
+    public void submittedScoresAreWrittenThroughToTheDatabase() {
+        DatabaseHandler.Score score = new DatabaseHandler.Score(playerName, 42);
+        leaderboard.submit(score);
+        Mockito.verify(scoreWriter).submit(score);
+    }
+
+    @Test
+    public void scoresRejectedByTheWriterAreNotRecorded() {
+        Mockito.doThrow(new IllegalStateException("Score writer is already closed!"))
+                .when(scoreWriter).submit(Mockito.any());
+        try {
+            leaderboard.submit(new DatabaseHandler.Score(playerName, 20_000));
+            fail("A closed writer must reject the score!");
+        } catch (IllegalStateException e) {
+            // The score was never queued to be saved.
+        }
+        assertEquals(10_000, leaderboard.getHighestScore());
+        assertEquals(500, leaderboard.getPersonalBest(playerName));
+        assertEquals(storedTopScores, leaderboard.getTopScores());
+    }
+
+    @Test
+    public void submittingANewHighScoreUpdatesTheLeaderboard() {
+        leaderboard.submit(new DatabaseHandler.Score(playerName, 20_000));
+
+        assertEquals(20_000, leaderboard.getHighestScore());
+        assertEquals(20_000, leaderboard.getPersonalBest(playerName));
+        List<DatabaseHandler.Score> topScores = leaderboard.getTopScores();
+        assertEquals(Leaderboard.TOP_SIZE, topScores.size());
+        assertEquals(new DatabaseHandler.Score(playerName, 20_000), topScores.get(0));
+        assertEquals(2_000, (int) topScores.get(topScores.size() - 1).score());
+    }
+
+    @Test
+    public void submittingALowScoreKeepsTheStoredPersonalBest() {
+        leaderboard.submit(new DatabaseHandler.Score(playerName, 100));
+
+        assertEquals(500, leaderboard.getPersonalBest(playerName));
+        Mockito.verify(dbHandler, Mockito.times(1)).getPlayerStats(Mockito.anyString());
+    }
+
+    @Test
+    public void submittingALowScoreLeavesTheTopScoresIntact() {
+        leaderboard.submit(new DatabaseHandler.Score(playerName, 1));
+
+        assertEquals(10_000, leaderboard.getHighestScore());
+        assertEquals(storedTopScores, leaderboard.getTopScores());
+    }
+}
@@ -6,28 +6,17 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import static org.junit.Assert.assertEquals;
 
 public class PlayerTest {
 
     private static final int ESTABLISHED_PLAYER_TOP = 5_000;
-    // Holds the mocked previous scores returned from the database
-    // for an already established player.
-    private static final List<Integer> PREV_SCORES = new ArrayList<>(
-            List.of(
-                    -150, 30, 50, 169, 2_500, 3_420, 3_969,
-                    4_420, 4_785, ESTABLISHED_PLAYER_TOP
-            )
-    );
 
     private static final String newPlayerName         = "NewPlayer";
     private static final String establishedPlayerName = "EstablishedPlayer";
 
     @Mock
-    private final DatabaseHandler dbHandler = Mockito.mock(DatabaseHandler.class);
+    private final Leaderboard leaderboard = Mockito.mock(Leaderboard.class);
 
     private Player newPlayer;
     private Player establishedPlayer;
@@ -35,15 +24,14 @@ public class PlayerTest {
     @Before
     public void setUp() {
         // Completely new player to be tested:
-        Mockito.when(dbHandler.getPlayerScoresOrdered(newPlayerName))
-                .thenReturn(new ArrayList<>());
-        newPlayer = new Player(newPlayerName, dbHandler);
+        Mockito.when(leaderboard.getPersonalBest(newPlayerName)).thenReturn(0);
+        newPlayer = new Player(newPlayerName, leaderboard);
 
         // An already established player (with entries in the database)
         // to be tested:
-        Mockito.when(dbHandler.getPlayerScoresOrdered(establishedPlayerName))
-                .thenReturn(PREV_SCORES);
-        establishedPlayer = new Player(establishedPlayerName, dbHandler);
+        Mockito.when(leaderboard.getPersonalBest(establishedPlayerName))
+                .thenReturn(ESTABLISHED_PLAYER_TOP);
+        establishedPlayer = new Player(establishedPlayerName, leaderboard);
     }
 
     @After
@@ -53,7 +41,7 @@ public class PlayerTest {
     }
 
     private void simulateHighestEverScore(int score) {
-        Mockito.when(dbHandler.getHighestScore()).thenReturn(score);
+        Mockito.when(leaderboard.getHighestScore()).thenReturn(score);
     }
 
     @Test
@@ -68,7 +56,7 @@ public class PlayerTest {
 
     @Test(expected = NullPointerException.class)
     public void attemptingToCreateAPlayerWithoutANameYieldsAnException() {
-        Player p = new Player(null, dbHandler);
+        Player p = new Player(null, leaderboard);
     }
 
     @Test(expected = NullPointerException.class)
@@ -105,6 +93,26 @@ public class PlayerTest {
         assertEquals(ScoreCategory.HIGH_SCORE, newPlayer.saveScore(newHighest));
     }
 
+    @Test
+    public void savedScoreContainsEveryDetailOfTheGame() {
+        simulateHighestEverScore(Integer.MAX_VALUE);
+        newPlayer.saveScore(1_650, 16, 30, 99, 60_000_123_456L, 1_657_230_173_000L, 2022L);
+
+        DatabaseHandler.Score expected = new DatabaseHandler.Score(
+                newPlayerName, 1_650,
+                16, 30, 99,
+                60_000_123_456L,
+                1_657_230_173_000L,
+                2022L
+        );
+        Mockito.verify(leaderboard).submit(expected);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void savingTheScoreOfAnotherPlayerYieldsAnException() {
+        newPlayer.saveScore(new DatabaseHandler.Score(establishedPlayerName, 1));
+    }
+
     @Test
     public void gettersShouldGiveBackTheCorrectName() {
         assertEquals(newPlayerName, newPlayer.getName());
@@ -0,0 +1,128 @@
+package hu.aestallon.minesweeper.scores;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ScoreWriterTest {
+
+    private static final int testScoreCount = 5_000;
+
+    @Mock
+    private final DatabaseHandler dbHandler = Mockito.mock(DatabaseHandler.class);
+
+    private ScoreWriter scoreWriter;
+
+    @Before
+    public void setUp() {
+        Mockito.when(dbHandler.insertScores(Mockito.anyList()))
+                .thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+        scoreWriter = new ScoreWriter(dbHandler);
+    }
+
+    @After
+    public void tearDown() {
+        scoreWriter.close();
+        scoreWriter = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<DatabaseHandler.Score>> capturedBatches() {
+        ArgumentCaptor<List<DatabaseHandler.Score>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(dbHandler, Mockito.atLeastOnce()).insertScores(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    public void flushingWaitsUntilEverySubmittedScoreIsInsertedInOrder() {
+        for (int i = 0; i < testScoreCount; i++) {
+            scoreWriter.submit(new DatabaseHandler.Score("player", i));
+        }
+        scoreWriter.flush();
+
+        List<Integer> inserted = new ArrayList<>();
+        capturedBatches().forEach(batch -> batch.forEach(score -> inserted.add(score.score())));
+        assertEquals(testScoreCount, inserted.size());
+        for (int i = 0; i < testScoreCount; i++) {
+            assertEquals(i, (int) inserted.get(i));
+        }
+    }
+
+    @Test
+    public void batchesNeverExceedTheMaximumBatchSize() {
+        for (int i = 0; i < testScoreCount; i++) {
+            scoreWriter.submit(new DatabaseHandler.Score("player", i));
+        }
+        scoreWriter.flush();
+
+        for (List<DatabaseHandler.Score> batch : capturedBatches()) {
+            assertTrue(batch.size() <= ScoreWriter.MAX_BATCH_SIZE);
+        }
+    }
+
+    @Test
+    public void closingFlushesTheQueuedScores() {
+        scoreWriter.submit(new DatabaseHandler.Score("player", 1));
+        scoreWriter.submit(new DatabaseHandler.Score("player", 2));
+        scoreWriter.close();
+
+        int insertedCount = capturedBatches().stream().mapToInt(List::size).sum();
+        assertEquals(2, insertedCount);
+    }
+
+    @Test
+    public void failedBatchesAreRetried() {
+        Mockito.when(dbHandler.insertScores(Mockito.anyList()))
+                .thenThrow(new IllegalStateException("Database is locked!"))
+                .thenReturn(0)
+                .thenReturn(1);
+        scoreWriter.submit(new DatabaseHandler.Score("player", 1));
+
+        assertTrue(scoreWriter.flush());
+        assertEquals(0, scoreWriter.getFailedCount());
+        Mockito.verify(dbHandler, Mockito.times(ScoreWriter.MAX_ATTEMPTS)).insertScores(Mockito.anyList());
+    }
+
+    @Test
+    public void scoresFailingEveryAttemptAreReportedAsFailed() {
+        Mockito.when(dbHandler.insertScores(Mockito.anyList()))
+                .thenThrow(new IllegalStateException("Database is locked!"));
+        scoreWriter.submit(new DatabaseHandler.Score("player", 1));
+
+        assertFalse(scoreWriter.flush());
+        assertEquals(1, scoreWriter.getFailedCount());
+
+        // The writer carries on with the next scores:
+        Mockito.reset(dbHandler);
+        Mockito.when(dbHandler.insertScores(Mockito.anyList())).thenReturn(1);
+        scoreWriter.submit(new DatabaseHandler.Score("player", 2));
+        assertTrue(scoreWriter.flush());
+        assertEquals(1, scoreWriter.getFailedCount());
+        Mockito.verify(dbHandler).insertScores(Mockito.anyList());
+    }
+
+    @Test(timeout = 10_000)
+    public void flushingReturnsOnceTheWriterThreadHasStopped() {
+        Mockito.when(dbHandler.insertScores(Mockito.anyList())).thenThrow(new OutOfMemoryError());
+        scoreWriter.submit(new DatabaseHandler.Score("player", 1));
+
+        assertFalse(scoreWriter.flush());
+        scoreWriter.close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void submittingToAClosedWriterYieldsAnException() {
+        scoreWriter.close();
+        scoreWriter.submit(new DatabaseHandler.Score("player", 1));
+    }
+}